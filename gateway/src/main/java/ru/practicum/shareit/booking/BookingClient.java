@@ -2,16 +2,23 @@ package ru.practicum.shareit.booking;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ClientHttpConnector;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.request.BookingCreateRequest;
 import ru.practicum.shareit.booking.enums.State;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ConcurrencyLimiter;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.RouteGuard;
+import ru.practicum.shareit.client.ServerEndpoints;
+import ru.practicum.shareit.item.ItemClient;
 
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
@@ -21,46 +28,55 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(WebClient.Builder builder, ServerEndpoints serverEndpoints, RouteGuard routeGuard,
+                         ConcurrencyLimiter concurrencyLimiter, ClientHttpConnector shareitServerConnector,
+                         RequestCoalescer requestCoalescer, ResponseCache responseCache) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .uriBuilderFactory(new DefaultUriBuilderFactory(ServerEndpoints.BASE_URL + API_PREFIX))
+                        .filter(routeGuard.filter("bookings"))
+                        .filter(concurrencyLimiter.filter())
+                        .filter(serverEndpoints.loadBalancer())
+                        .clientConnector(shareitServerConnector)
+                        .build(),
+                requestCoalescer,
+                responseCache
         );
     }
 
-    public ResponseEntity<Object> bookItem(Integer userId, BookingCreateRequest dto) {
-        return post("", userId.longValue(), dto);
+    public Mono<ResponseEntity<byte[]>> bookItem(Integer userId, BookingCreateRequest dto) {
+        return forItem(dto.getItemId(), post("", userId.longValue(), dto));
     }
 
-    public ResponseEntity<Object> approveBookingStatus(Integer id, Integer userId, boolean isApproved) {
+    public Mono<ResponseEntity<byte[]>> approveBookingStatus(Integer id, Integer userId, boolean isApproved) {
         Map<String, Object> parameters = Map.of(
                 "approved", isApproved
         );
-        return patch("/" + id + "?approved={approved}", userId.longValue(), parameters, null);
+        // the owner's items show their last and next approved bookings
+        return evicting(patch("/" + id + "?approved={approved}", userId.longValue(), parameters, null),
+                ItemClient.class, path -> true, userId.longValue());
     }
 
-    public ResponseEntity<Object> getBooking(Integer id, Integer userId) {
+    public Mono<ResponseEntity<byte[]>> getBooking(Integer id, Integer userId) {
         return get("/" + id, userId.longValue());
     }
 
-    public ResponseEntity<Object> getUserBookings(Integer userId, State state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
+    public Mono<ResponseEntity<byte[]>> getUserBookings(Integer userId, State state, Integer from, Integer size, String after) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state,
                 "from", from,
                 "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId.longValue(), parameters);
+        ));
+        return expensive(get(withCursor("?state={state}&from={from}&size={size}", after, parameters), userId.longValue(), parameters));
     }
 
-    public ResponseEntity<Object> getUserItemsBookings(Integer userId, State state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
+    public Mono<ResponseEntity<byte[]>> getUserItemsBookings(Integer userId, State state, Integer from, Integer size, String after) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state,
                 "from", from,
                 "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", userId.longValue(), parameters);
+        ));
+        return expensive(get(withCursor("/owner?state={state}&from={from}&size={size}", after, parameters), userId.longValue(), parameters));
     }
 
 }
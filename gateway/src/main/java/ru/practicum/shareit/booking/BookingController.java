@@ -5,6 +5,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.request.BookingCreateRequest;
 import ru.practicum.shareit.booking.enums.State;
 import ru.practicum.shareit.exception.model.NotAuthenticatedException;
@@ -21,7 +22,7 @@ public class BookingController {
 
     @GetMapping("/{id}")
     @ResponseStatus(HttpStatus.OK)
-    public ResponseEntity<Object> getBook(
+    public Mono<ResponseEntity<byte[]>> getBook(
             @PathVariable Integer id,
             @RequestHeader(name = "X-Sharer-User-Id", required = false) Integer userId) {
         log.info("Пришел запрос GET /bookings/{} userId={}", id, userId);
@@ -33,7 +34,7 @@ public class BookingController {
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public ResponseEntity<Object> bookItem(
+    public Mono<ResponseEntity<byte[]>> bookItem(
             @RequestBody @Valid BookingCreateRequest bookingDto,
             @RequestHeader(name = "X-Sharer-User-Id", required = false) Integer userId) {
         log.info("Пришел запрос POST /bookings userId={}: {}", userId, bookingDto);
@@ -47,7 +48,7 @@ public class BookingController {
 
     @PatchMapping("/{id}")
     @ResponseStatus(HttpStatus.OK)
-    public ResponseEntity<Object> approveBook(
+    public Mono<ResponseEntity<byte[]>> approveBook(
             @PathVariable Integer id,
             @RequestParam(required = false) Boolean approved,
             @RequestHeader(name = "X-Sharer-User-Id", required = false) Integer userId
@@ -67,11 +68,12 @@ public class BookingController {
 
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
-    public ResponseEntity<Object> getUserBookings(
+    public Mono<ResponseEntity<byte[]>> getUserBookings(
             @RequestParam(defaultValue = "ALL", value = "state") String stateStr,
             @RequestHeader(name = "X-Sharer-User-Id", required = false) Integer userId,
             @RequestParam(value = "from", defaultValue = "0") Integer from,
-            @RequestParam(name = "size", defaultValue = "20") Integer size
+            @RequestParam(name = "size", defaultValue = "20") Integer size,
+            @RequestParam(name = "after", required = false) String after
     ) {
         log.info("Пришел запрос GET /bookings?state={} userId={}", stateStr, userId);
         if (from < 0 || size < 1) {
@@ -84,16 +86,17 @@ public class BookingController {
                 () -> new IllegalArgumentException("Unknown state: " + stateStr)
         );
 
-        return bookingClient.getUserBookings(userId, state, from, size);
+        return bookingClient.getUserBookings(userId, state, from, size, after);
     }
 
     @GetMapping("/owner")
     @ResponseStatus(HttpStatus.OK)
-    public ResponseEntity<Object> getUserItemsBookings(
+    public Mono<ResponseEntity<byte[]>> getUserItemsBookings(
             @RequestParam(defaultValue = "ALL", value = "state") String stateStr,
             @RequestHeader(name = "X-Sharer-User-Id", required = false) Integer userId,
             @RequestParam(value = "from", defaultValue = "0") Integer from,
-            @RequestParam(name = "size", defaultValue = "20") Integer size
+            @RequestParam(name = "size", defaultValue = "20") Integer size,
+            @RequestParam(name = "after", required = false) String after
     ) {
         log.info("Пришел запрос GET /bookings/owner?state={} userId={}", stateStr, userId);
         if (from < 0 || size < 1) {
@@ -106,7 +109,7 @@ public class BookingController {
                 () -> new IllegalArgumentException("Unknown state: " + stateStr)
         );
 
-        return bookingClient.getUserItemsBookings(userId, state, from, size);
+        return bookingClient.getUserItemsBookings(userId, state, from, size, after);
     }
 
 }
@@ -1,108 +1,236 @@
 package ru.practicum.shareit.client;
 
+import io.netty.handler.timeout.ReadTimeoutException;
 import org.springframework.http.*;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.exception.model.ServerTimeoutException;
+import ru.practicum.shareit.exception.model.ServerUnavailableException;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
 
 public class BaseClient {
-    protected final RestTemplate rest;
+    private static final List<String> HOP_BY_HOP_HEADERS = List.of(
+            HttpHeaders.CONNECTION, "Keep-Alive", HttpHeaders.TRANSFER_ENCODING, HttpHeaders.TE, HttpHeaders.TRAILER,
+            HttpHeaders.UPGRADE, HttpHeaders.PROXY_AUTHENTICATE, HttpHeaders.PROXY_AUTHORIZATION,
+            HttpHeaders.CONTENT_LENGTH);
 
-    public BaseClient(RestTemplate rest) {
-        this.rest = rest;
+    protected final WebClient web;
+
+    private final RequestCoalescer requestCoalescer;
+
+    @Nullable
+    private final ResponseCache responseCache;
+
+    public BaseClient(WebClient web, RequestCoalescer requestCoalescer) {
+        this(web, requestCoalescer, null);
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
+    public BaseClient(WebClient web, RequestCoalescer requestCoalescer, @Nullable ResponseCache responseCache) {
+        this.web = web;
+        this.requestCoalescer = requestCoalescer;
+        this.responseCache = responseCache;
+    }
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+    /**
+     * The server's bytes and end-to-end headers are passed through as is, the body is never parsed.
+     */
+    private static ResponseEntity<byte[]> prepareGatewayResponse(int status, @Nullable HttpHeaders serverHeaders,
+                                                                 @Nullable byte[] body) {
+        HttpHeaders headers = new HttpHeaders();
+        if (serverHeaders != null) {
+            serverHeaders.forEach((name, values) -> {
+                if (HOP_BY_HOP_HEADERS.stream().noneMatch(name::equalsIgnoreCase)) {
+                    headers.put(name, values);
+                }
+            });
+        }
+        return new ResponseEntity<>(body, headers, status);
+    }
 
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+    /**
+     * Adds the keyset cursor to the path when the client asked for cursor pagination.
+     */
+    protected static String withCursor(String path, @Nullable String after, Map<String, Object> parameters) {
+        if (after == null) {
+            return path;
         }
+        parameters.put("after", after);
+        return path + "&after={after}";
+    }
+
+    /**
+     * Routes the request to the server node that owns the item when item affinity routing is on.
+     */
+    protected static Mono<ResponseEntity<byte[]>> forItem(long itemId, Mono<ResponseEntity<byte[]>> request) {
+        return request.contextWrite(ServerEndpoints.itemAffinity(itemId));
+    }
+
+    /**
+     * Marks a list or search call, shed first when shareit-server is overloaded.
+     */
+    protected static Mono<ResponseEntity<byte[]>> expensive(Mono<ResponseEntity<byte[]>> request) {
+        return request.contextWrite(ConcurrencyLimiter.expensive());
+    }
 
-        return responseBuilder.build();
+    /**
+     * Sends the request through another upstream route than the client's own, with its own
+     * circuit breaker, bulkhead and time budget.
+     */
+    protected static Mono<ResponseEntity<byte[]>> onRoute(String route, Mono<ResponseEntity<byte[]>> request) {
+        return request.contextWrite(RouteGuard.route(route));
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected Mono<ResponseEntity<byte[]>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Mono<ResponseEntity<byte[]>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+    protected Mono<ResponseEntity<byte[]>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        RequestKey key = new RequestKey(HttpMethod.GET, getClass(), path, parameters, userId);
+        return requestCoalescer.execute(key, () -> makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null));
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    /**
+     * GET through the response cache; pass the user only when the result depends on it.
+     */
+    protected Mono<ResponseEntity<byte[]>> getCached(String path, @Nullable Long userId,
+                                                     @Nullable Map<String, Object> parameters) {
+        if (responseCache == null) {
+            return get(path, userId, parameters);
+        }
+        RequestKey key = new RequestKey(HttpMethod.GET, getClass(), path, parameters, userId);
+        ResponseCache.Entry cached = responseCache.get(key);
+        if (cached != null && responseCache.isFresh(cached)) {
+            return Mono.just(cached.toResponse());
+        }
+        HttpHeaders conditional = cached != null ? cached.conditionalHeaders() : new HttpHeaders();
+        return requestCoalescer.execute(key, () -> {
+            long generation = responseCache.generation();
+            return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null, conditional)
+                    .map(response -> {
+                        if (cached != null && response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+                            return responseCache.revalidated(key, cached, generation);
+                        }
+                        responseCache.store(key, response, cached, generation);
+                        return response;
+                    });
+        });
+    }
+
+    /**
+     * Drops the cached reads of a client that the write may change, once the write has finished.
+     */
+    protected Mono<ResponseEntity<byte[]>> evicting(Mono<ResponseEntity<byte[]>> write,
+                                                    Class<? extends BaseClient> client, Predicate<String> path,
+                                                    @Nullable Long userId) {
+        if (responseCache == null) {
+            return write;
+        }
+        return write.doFinally(signal -> responseCache.invalidate(client, path, userId));
+    }
+
+    protected <T> Mono<ResponseEntity<byte[]>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<byte[]>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<byte[]>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<byte[]>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<byte[]>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<byte[]>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> Mono<ResponseEntity<byte[]>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<byte[]>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<byte[]>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<byte[]>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected Mono<ResponseEntity<byte[]>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<byte[]>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    private <T> Mono<ResponseEntity<byte[]>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        return makeAndSendRequest(method, path, userId, parameters, body, new HttpHeaders());
+    }
+
+    private <T> Mono<ResponseEntity<byte[]>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body, HttpHeaders extraHeaders) {
+        // resolved on the calling thread, the request attributes are not visible once the exchange runs
+        Object payload = toPayload(body);
+        WebClient.RequestBodySpec request = web.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> {
+                    headers.addAll(defaultHeaders(userId));
+                    headers.addAll(extraHeaders);
+                });
+        WebClient.RequestHeadersSpec<?> exchange = payload != null ? request.bodyValue(payload) : request;
 
-        ResponseEntity<Object> shareitServerResponse;
-        try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+        return exchange.exchangeToMono(response -> response.toEntity(byte[].class))
+                .map(response -> prepareGatewayResponse(response.getStatusCodeValue(), response.getHeaders(),
+                        response.getBody()))
+                .onErrorMap(WebClientRequestException.class, BaseClient::toGatewayException);
+    }
+
+    /**
+     * A validated request body is forwarded as the bytes the client sent.
+     */
+    @Nullable
+    private static Object toPayload(@Nullable Object body) {
+        if (body == null) {
+            return null;
+        }
+        byte[] rawBody = RawRequestBodyAdvice.currentBody();
+        return rawBody != null ? rawBody : body;
+    }
+
+    /**
+     * No free pooled connection or no connection at all is 503, a server that accepted
+     * the request but did not answer within the read timeout is 504.
+     */
+    private static RuntimeException toGatewayException(WebClientRequestException e) {
+        if (e.getCause() instanceof TimeoutException) {
+            return new ServerUnavailableException("No free connection to shareit-server");
+        }
+        if (e.getCause() instanceof ReadTimeoutException) {
+            return new ServerTimeoutException("shareit-server did not respond in time");
         }
-        return prepareGatewayResponse(shareitServerResponse);
+        return new ServerUnavailableException("shareit-server is unavailable");
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
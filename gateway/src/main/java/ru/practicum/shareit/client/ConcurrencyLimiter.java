@@ -0,0 +1,138 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import ru.practicum.shareit.exception.model.ServerOverloadedException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AIMD limit on the requests in flight to shareit-server. Every response under max-latency while
+ * the limit is in use raises it by one, a slow, timed out or 502-504 response cuts it by the
+ * backoff ratio, at most once per max-latency. Requests over the limit fail at once with 503 and
+ * Retry-After instead of queueing; expensive list and search calls only get expensive-share of
+ * the limit, so under pressure they are shed before single entity reads and writes.
+ */
+@Component
+public class ConcurrencyLimiter {
+
+    private static final String EXPENSIVE = ConcurrencyLimiter.class.getName() + ".expensive";
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final long maxLatencyNanos;
+
+    private final double backoffRatio;
+
+    private final double expensiveShare;
+
+    private final Duration retryAfter;
+
+    private final Counter cheapRejections;
+
+    private final Counter expensiveRejections;
+
+    private volatile double limit;
+
+    private long lastDecrease;
+
+    public ConcurrencyLimiter(@Value("${shareit-server.limit.initial:20}") int initialLimit,
+                              @Value("${shareit-server.limit.min:4}") int minLimit,
+                              @Value("${shareit-server.limit.max:200}") int maxLimit,
+                              @Value("${shareit-server.limit.max-latency:1s}") Duration maxLatency,
+                              @Value("${shareit-server.limit.backoff-ratio:0.9}") double backoffRatio,
+                              @Value("${shareit-server.limit.expensive-share:0.75}") double expensiveShare,
+                              @Value("${shareit-server.limit.retry-after:1s}") Duration retryAfter,
+                              MeterRegistry meterRegistry) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.maxLatencyNanos = maxLatency.toNanos();
+        // the first overload signal after start is acted on at once
+        this.lastDecrease = System.nanoTime() - maxLatencyNanos;
+        this.backoffRatio = backoffRatio;
+        this.expensiveShare = expensiveShare;
+        this.retryAfter = retryAfter;
+        this.cheapRejections = Counter.builder("gateway.limit.rejections").tag("priority", "cheap")
+                .register(meterRegistry);
+        this.expensiveRejections = Counter.builder("gateway.limit.rejections").tag("priority", "expensive")
+                .register(meterRegistry);
+        Gauge.builder("gateway.limit.current", this, limiter -> limiter.limit).register(meterRegistry);
+        Gauge.builder("gateway.limit.in.flight", inFlight, AtomicInteger::get).register(meterRegistry);
+    }
+
+    /**
+     * Subscriber context that marks a list or search call, the first to be shed.
+     */
+    static Context expensive() {
+        return Context.of(EXPENSIVE, true);
+    }
+
+    public ExchangeFilterFunction filter() {
+        return (request, next) -> Mono.deferContextual(context -> {
+            boolean expensive = context.getOrDefault(EXPENSIVE, false);
+            if (!tryAcquire(expensive)) {
+                (expensive ? expensiveRejections : cheapRejections).increment();
+                return Mono.error(new ServerOverloadedException("shareit-server is overloaded", retryAfter));
+            }
+            long start = System.nanoTime();
+            AtomicBoolean sampled = new AtomicBoolean();
+            return next.exchange(request)
+                    .doOnSuccess(response -> {
+                        if (sampled.compareAndSet(false, true)) {
+                            onSample(System.nanoTime() - start,
+                                    response.rawStatusCode() >= 502 && response.rawStatusCode() <= 504);
+                        }
+                    })
+                    .doOnError(e -> {
+                        if (sampled.compareAndSet(false, true)) {
+                            onSample(System.nanoTime() - start, true);
+                        }
+                    })
+                    // a call cancelled by the route time budget is a dropped call too
+                    .doOnCancel(() -> {
+                        if (sampled.compareAndSet(false, true)) {
+                            onSample(System.nanoTime() - start, true);
+                        }
+                    })
+                    .doFinally(signal -> inFlight.decrementAndGet());
+        });
+    }
+
+    private boolean tryAcquire(boolean expensive) {
+        int allowed = (int) (expensive ? limit * expensiveShare : limit);
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private synchronized void onSample(long latencyNanos, boolean dropped) {
+        long now = System.nanoTime();
+        if (dropped || latencyNanos > maxLatencyNanos) {
+            if (now - lastDecrease >= maxLatencyNanos) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+                lastDecrease = now;
+            }
+        } else if (inFlight.get() * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.client;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * One non-blocking connection pool to shareit-server shared by all clients. Servlet threads are
+ * released while a request waits for the server, pool waits and reads are bounded, so a slow
+ * server turns into 503/504 instead of piling up requests.
+ * <p>
+ * Reactor Netty keeps a separate pool per server instance, so the connection and pending-acquire
+ * caps hold per host. The total number of calls in flight across all instances is capped by
+ * {@link ConcurrencyLimiter} ({@code shareit-server.limit.max}).
+ */
+@Configuration
+public class HttpTransportConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider shareitServerConnectionProvider(
+            @Value("${shareit-server.pool.max-connections-per-host:200}") int maxConnectionsPerHost,
+            @Value("${shareit-server.pool.max-pending-acquires:200}") int maxPendingAcquires,
+            @Value("${shareit-server.pool.max-idle-time:30s}") Duration maxIdleTime,
+            @Value("${shareit-server.pool.idle-eviction:30s}") Duration idleEviction,
+            @Value("${shareit-server.timeout.pool:500ms}") Duration poolTimeout) {
+        return ConnectionProvider.builder("shareit-server")
+                .maxConnections(maxConnectionsPerHost)
+                // past this many waiters an acquire fails at once instead of waiting for the pool timeout
+                .pendingAcquireMaxCount(maxPendingAcquires)
+                .pendingAcquireTimeout(poolTimeout)
+                .maxIdleTime(maxIdleTime)
+                .evictInBackground(idleEviction)
+                // reactor.netty.connection.provider.* gauges, published through the global registry
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public ClientHttpConnector shareitServerConnector(
+            ConnectionProvider shareitServerConnectionProvider,
+            @Value("${shareit-server.timeout.connect:1s}") Duration connectTimeout,
+            @Value("${shareit-server.timeout.read:5s}") Duration readTimeout) {
+        HttpClient httpClient = HttpClient.create(shareitServerConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(readTimeout);
+        return new ReactorClientHttpConnector(httpClient);
+    }
+}
@@ -0,0 +1,75 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.exception.model.ServerTimeoutException;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Single flight for idempotent reads: while a request is in flight, identical requests
+ * wait for its response instead of going to the server. The first caller's exchange is
+ * cached until it completes, later callers only wait for it up to max-wait.
+ */
+@Component
+public class RequestCoalescer {
+
+    private final Map<RequestKey, Mono<ResponseEntity<byte[]>>> inFlight = new ConcurrentHashMap<>();
+
+    private final Duration maxWait;
+
+    private final Counter leaders;
+
+    private final Counter followers;
+
+    private final Counter waitTimeouts;
+
+    public RequestCoalescer(@Value("${shareit-server.coalescing.max-wait:5s}") Duration maxWait,
+                            MeterRegistry meterRegistry) {
+        this.maxWait = maxWait;
+        this.leaders = Counter.builder("gateway.coalescing.requests").tag("role", "leader").register(meterRegistry);
+        this.followers = Counter.builder("gateway.coalescing.requests").tag("role", "follower").register(meterRegistry);
+        this.waitTimeouts = Counter.builder("gateway.coalescing.wait.timeouts").register(meterRegistry);
+        meterRegistry.gaugeMapSize("gateway.coalescing.in.flight", Tags.empty(), inFlight);
+    }
+
+    Mono<ResponseEntity<byte[]>> execute(RequestKey key, Supplier<Mono<ResponseEntity<byte[]>>> call) {
+        return Mono.defer(() -> {
+            AtomicBoolean leader = new AtomicBoolean();
+            Mono<ResponseEntity<byte[]>> flight = inFlight.computeIfAbsent(key, k -> {
+                leader.set(true);
+                return newFlight(k, call);
+            });
+            if (leader.get()) {
+                leaders.increment();
+                return flight;
+            }
+            followers.increment();
+            return flight.timeout(maxWait)
+                    .onErrorMap(TimeoutException.class, e -> {
+                        waitTimeouts.increment();
+                        return new ServerTimeoutException("shareit-server did not respond in time");
+                    });
+        });
+    }
+
+    private Mono<ResponseEntity<byte[]>> newFlight(RequestKey key, Supplier<Mono<ResponseEntity<byte[]>>> call) {
+        AtomicReference<Mono<ResponseEntity<byte[]>>> self = new AtomicReference<>();
+        Mono<ResponseEntity<byte[]>> flight = call.get()
+                .doFinally(signal -> inFlight.remove(key, self.get()))
+                .cache();
+        self.set(flight);
+        return flight;
+    }
+}
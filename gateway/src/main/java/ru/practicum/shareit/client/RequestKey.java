@@ -0,0 +1,23 @@
+package ru.practicum.shareit.client;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.springframework.http.HttpMethod;
+
+import java.util.Map;
+
+/**
+ * Identity of an upstream request. Paths are relative to the client's API prefix,
+ * so the client is part of the key; a null user means no X-Sharer-User-Id is sent.
+ */
+@AllArgsConstructor
+@EqualsAndHashCode
+@Getter
+class RequestKey {
+    private final HttpMethod method;
+    private final Class<?> client;
+    private final String path;
+    private final Map<String, Object> parameters;
+    private final Long userId;
+}
@@ -0,0 +1,129 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Bounded in-process cache of successful GET responses that carry an ETag or Last-Modified.
+ * An entry younger than fresh-for is served as is, an older one is revalidated with a
+ * conditional request and served again on 304.
+ * <p>
+ * Writes through the clients drop the reads they affect. This happens per gateway node, so
+ * another gateway node can serve the old response for up to fresh-for.
+ */
+@Component
+public class ResponseCache {
+
+    private static final String NAME = "gateway-responses";
+
+    private final Cache<RequestKey, Entry> entries;
+
+    private final long freshForNanos;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Counter notModified;
+
+    private final Counter modified;
+
+    public ResponseCache(@Value("${shareit-server.cache.fresh-for:5s}") Duration freshFor,
+                         @Value("${shareit-server.cache.ttl:1m}") Duration ttl,
+                         @Value("${shareit-server.cache.max-size:10000}") long maxSize,
+                         MeterRegistry meterRegistry) {
+        this.entries = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        this.freshForNanos = freshFor.toNanos();
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, NAME);
+        this.notModified = Counter.builder("gateway.cache.revalidations").tag("cache", NAME)
+                .tag("result", "not_modified").register(meterRegistry);
+        this.modified = Counter.builder("gateway.cache.revalidations").tag("cache", NAME)
+                .tag("result", "modified").register(meterRegistry);
+    }
+
+    @Nullable
+    Entry get(RequestKey key) {
+        return entries.getIfPresent(key);
+    }
+
+    boolean isFresh(Entry entry) {
+        return System.nanoTime() - entry.getStoredAt() < freshForNanos;
+    }
+
+    /**
+     * Drops the client's reads whose path matches, of one user or of everybody when the user is null.
+     * Reads in flight at that moment are not stored, the server may have answered them before the write.
+     */
+    public void invalidate(Class<? extends BaseClient> client, Predicate<String> path, @Nullable Long userId) {
+        generation.incrementAndGet();
+        entries.asMap().keySet().removeIf(key -> key.getClient() == client && path.test(key.getPath())
+                && (userId == null || userId.equals(key.getUserId())));
+    }
+
+    long generation() {
+        return generation.get();
+    }
+
+    void store(RequestKey key, ResponseEntity<byte[]> response, @Nullable Entry previous, long readGeneration) {
+        if (previous != null) {
+            modified.increment();
+        }
+        if (readGeneration != generation.get()) {
+            return;
+        }
+        HttpHeaders headers = response.getHeaders();
+        if (response.getStatusCode() != HttpStatus.OK || (headers.getETag() == null && headers.getLastModified() < 0)) {
+            entries.invalidate(key);
+            return;
+        }
+        entries.put(key, new Entry(headers, response.getBody(), System.nanoTime()));
+    }
+
+    ResponseEntity<byte[]> revalidated(RequestKey key, Entry entry, long readGeneration) {
+        notModified.increment();
+        if (readGeneration == generation.get()) {
+            entries.put(key, new Entry(entry.getHeaders(), entry.getBody(), System.nanoTime()));
+        }
+        return entry.toResponse();
+    }
+
+    @AllArgsConstructor
+    @Getter
+    static class Entry {
+        private final HttpHeaders headers;
+        private final byte[] body;
+        private final long storedAt;
+
+        HttpHeaders conditionalHeaders() {
+            HttpHeaders conditional = new HttpHeaders();
+            if (headers.getETag() != null) {
+                conditional.setIfNoneMatch(headers.getETag());
+            }
+            if (headers.getLastModified() >= 0) {
+                conditional.setIfModifiedSince(headers.getLastModified());
+            }
+            return conditional;
+        }
+
+        ResponseEntity<byte[]> toResponse() {
+            return new ResponseEntity<>(body, headers, HttpStatus.OK);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package ru.practicum.shareit.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.timelimiter.TimeLimiterOperator;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import ru.practicum.shareit.exception.model.ServerOverloadedException;
+import ru.practicum.shareit.exception.model.ServerTimeoutException;
+import ru.practicum.shareit.exception.model.ServerUnavailableException;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Isolates the upstream routes (items, search, bookings, users, requests) from each other. Each
+ * route has its own permit bulkhead, time budget and circuit breaker from the resilience4j.*
+ * properties, so a slow search can only use up the search permits and open the search circuit.
+ * A 502-504 response or a timeout is a failed call; an open circuit lets a few probe calls through
+ * after wait-duration-in-open-state.
+ */
+@Component
+@Slf4j
+public class RouteGuard {
+
+    private static final String ROUTE = RouteGuard.class.getName() + ".route";
+
+    private final CircuitBreakerRegistry circuitBreakers;
+
+    private final BulkheadRegistry bulkheads;
+
+    private final TimeLimiterRegistry timeLimiters;
+
+    private final Duration retryAfter;
+
+    public RouteGuard(CircuitBreakerRegistry circuitBreakers, BulkheadRegistry bulkheads,
+                      TimeLimiterRegistry timeLimiters,
+                      @Value("${shareit-server.limit.retry-after:1s}") Duration retryAfter) {
+        this.circuitBreakers = circuitBreakers;
+        this.bulkheads = bulkheads;
+        this.timeLimiters = timeLimiters;
+        this.retryAfter = retryAfter;
+        circuitBreakers.getAllCircuitBreakers().forEach(RouteGuard::logTransitions);
+        circuitBreakers.getEventPublisher().onEntryAdded(event -> logTransitions(event.getAddedEntry()));
+    }
+
+    private static void logTransitions(CircuitBreaker circuitBreaker) {
+        circuitBreaker.getEventPublisher().onStateTransition(event -> log.warn("Маршрут {}: {}",
+                event.getCircuitBreakerName(), event.getStateTransition()));
+    }
+
+    /**
+     * Subscriber context that sends the request through another route than the client's own.
+     */
+    static Context route(String route) {
+        return Context.of(ROUTE, route);
+    }
+
+    public ExchangeFilterFunction filter(String defaultRoute) {
+        return (request, next) -> Mono.deferContextual(context -> {
+            String route = context.getOrDefault(ROUTE, defaultRoute);
+            CircuitBreaker circuitBreaker = circuitBreakers.circuitBreaker(route);
+            Bulkhead bulkhead = bulkheads.bulkhead(route);
+            TimeLimiter timeLimiter = timeLimiters.timeLimiter(route);
+            return next.exchange(request)
+                    .flatMap(response -> isUpstreamFailure(response.rawStatusCode())
+                            ? Mono.<ClientResponse>error(new FailedResponse(response))
+                            : Mono.just(response))
+                    .transformDeferred(TimeLimiterOperator.of(timeLimiter))
+                    .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                    .transformDeferred(BulkheadOperator.of(bulkhead))
+                    .onErrorResume(FailedResponse.class, e -> Mono.just(e.response))
+                    .onErrorMap(CallNotPermittedException.class,
+                            e -> new ServerUnavailableException("shareit-server " + route + " circuit is open"))
+                    .onErrorMap(BulkheadFullException.class,
+                            e -> new ServerOverloadedException("shareit-server " + route + " is busy", retryAfter))
+                    .onErrorMap(TimeoutException.class,
+                            e -> new ServerTimeoutException("shareit-server " + route + " did not respond in time"));
+        });
+    }
+
+    /**
+     * Only an unreachable, overloaded or timed out server counts; a 500 is the server's answer to
+     * this particular request (a duplicate email, say) and says nothing about the route.
+     */
+    private static boolean isUpstreamFailure(int status) {
+        return status >= 502 && status <= 504;
+    }
+
+    /**
+     * Carries a 502-504 response through the circuit breaker as a failure, it is still returned to the caller.
+     */
+    private static class FailedResponse extends RuntimeException {
+
+        private final transient ClientResponse response;
+
+        FailedResponse(ClientResponse response) {
+            super("shareit-server answered " + response.rawStatusCode(), null, false, false);
+            this.response = response;
+        }
+    }
+}
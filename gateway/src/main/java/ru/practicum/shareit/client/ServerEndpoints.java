@@ -0,0 +1,311 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * The shareit-server instances behind the gateway. Clients address a placeholder host, the
+ * {@link #loadBalancer()} filter sends every request to the less loaded of two random available
+ * instances. An instance is taken out after consecutive failures or a failed health check and
+ * comes back after the ejection time or the next good health check.
+ * <p>
+ * With item affinity on, requests marked with {@link #itemAffinity(long)} go to the owner of the
+ * item on a consistent hash ring, so per-node caches stay hot; adding or removing an instance only
+ * moves the items next to its virtual nodes. When the owner is not available the request is
+ * balanced as usual.
+ * <p>
+ * Read-your-writes on the server only holds within one instance, so after a user's write all
+ * their requests go to the instance that took it for the read-your-writes window, as long as
+ * it stays available.
+ */
+@Component
+@Slf4j
+public class ServerEndpoints {
+
+    public static final String BASE_URL = "http://shareit-server";
+
+    private static final String ITEM_AFFINITY = ServerEndpoints.class.getName() + ".item";
+
+    private final List<Endpoint> endpoints;
+
+    private final NavigableMap<Long, Endpoint> ring = new TreeMap<>();
+
+    private final Cache<String, Endpoint> recentWriters;
+
+    private final WebClient healthClient;
+
+    private final String healthPath;
+
+    private final Duration healthInterval;
+
+    private final int ejectAfter;
+
+    private final long ejectionNanos;
+
+    private final Counter affinityOwner;
+
+    private final Counter affinityFallback;
+
+    private Disposable healthChecks;
+
+    public ServerEndpoints(@Value("${shareit-server.urls:${shareit-server.url}}") List<String> urls,
+                           @Value("${shareit-server.health.path:/actuator/health}") String healthPath,
+                           @Value("${shareit-server.health.interval:10s}") Duration healthInterval,
+                           @Value("${shareit-server.ejection.consecutive-failures:3}") int ejectAfter,
+                           @Value("${shareit-server.ejection.time:30s}") Duration ejectionTime,
+                           @Value("${shareit-server.routing.item-affinity:false}") boolean itemAffinity,
+                           @Value("${shareit-server.routing.virtual-nodes:100}") int virtualNodes,
+                           @Value("${shareit-server.routing.read-your-writes:5s}") Duration readYourWrites,
+                           ClientHttpConnector shareitServerConnector,
+                           MeterRegistry meterRegistry) {
+        if (urls.isEmpty()) {
+            throw new IllegalArgumentException("At least one shareit-server url is required");
+        }
+        this.endpoints = urls.stream()
+                .map(String::trim)
+                .map(url -> new Endpoint(URI.create(url), meterRegistry))
+                .collect(Collectors.toList());
+        this.healthClient = WebClient.builder().clientConnector(shareitServerConnector).build();
+        this.healthPath = healthPath;
+        this.healthInterval = healthInterval;
+        this.ejectAfter = ejectAfter;
+        this.ejectionNanos = ejectionTime.toNanos();
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(readYourWrites)
+                .maximumSize(100_000)
+                .build();
+        if (itemAffinity) {
+            for (Endpoint endpoint : endpoints) {
+                for (int i = 0; i < virtualNodes; i++) {
+                    ring.put(hash(endpoint.uri + "#" + i), endpoint);
+                }
+            }
+        }
+        this.affinityOwner = Counter.builder("gateway.server.affinity").tag("result", "owner").register(meterRegistry);
+        this.affinityFallback = Counter.builder("gateway.server.affinity").tag("result", "fallback")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Subscriber context that routes the request by the item it is about.
+     */
+    static Context itemAffinity(long itemId) {
+        return Context.of(ITEM_AFFINITY, itemId);
+    }
+
+    @PostConstruct
+    public void startHealthChecks() {
+        healthChecks = Flux.interval(healthInterval)
+                .flatMap(tick -> Flux.fromIterable(endpoints).flatMap(this::checkHealth))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stopHealthChecks() {
+        if (healthChecks != null) {
+            healthChecks.dispose();
+        }
+    }
+
+    public ExchangeFilterFunction loadBalancer() {
+        return (request, next) -> Mono.deferContextual(context -> {
+            String userId = request.headers().getFirst("X-Sharer-User-Id");
+            Endpoint endpoint = choose(userId, context.getOrEmpty(ITEM_AFFINITY));
+            ClientRequest routed = ClientRequest.from(request).url(endpoint.resolve(request.url())).build();
+            endpoint.outstanding.incrementAndGet();
+            long start = System.nanoTime();
+            AtomicBoolean recorded = new AtomicBoolean();
+            return next.exchange(routed)
+                    .doOnSuccess(response -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            endpoint.onResponse(response.rawStatusCode() < 502 || response.rawStatusCode() > 504,
+                                    System.nanoTime() - start);
+                        }
+                        if (userId != null && request.method() != HttpMethod.GET
+                                && response.rawStatusCode() >= 200 && response.rawStatusCode() < 300) {
+                            recentWriters.put(userId, endpoint);
+                        }
+                    })
+                    .doOnError(e -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            endpoint.onResponse(false, System.nanoTime() - start);
+                        }
+                    })
+                    // a call cancelled by the route time budget counts against the instance
+                    .doOnCancel(() -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            endpoint.onResponse(false, System.nanoTime() - start);
+                        }
+                    })
+                    .doFinally(signal -> endpoint.outstanding.decrementAndGet());
+        });
+    }
+
+    private Endpoint choose(String userId, Optional<Long> itemId) {
+        Endpoint lastWrite = userId != null ? recentWriters.getIfPresent(userId) : null;
+        if (lastWrite != null && lastWrite.isAvailable(System.nanoTime())) {
+            return lastWrite;
+        }
+        if (ring.isEmpty() || itemId.isEmpty()) {
+            return choose();
+        }
+        Map.Entry<Long, Endpoint> owner = ring.ceilingEntry(hash(String.valueOf(itemId.get())));
+        Endpoint endpoint = owner != null ? owner.getValue() : ring.firstEntry().getValue();
+        if (endpoint.isAvailable(System.nanoTime())) {
+            affinityOwner.increment();
+            return endpoint;
+        }
+        affinityFallback.increment();
+        return choose();
+    }
+
+    /**
+     * Power of two choices over the available instances; when none is available
+     * all of them are tried, so the caller sees the real error.
+     */
+    private Endpoint choose() {
+        long now = System.nanoTime();
+        List<Endpoint> candidates = endpoints.stream()
+                .filter(endpoint -> endpoint.isAvailable(now))
+                .collect(Collectors.toList());
+        if (candidates.isEmpty()) {
+            candidates = endpoints;
+        }
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        Endpoint a = candidates.get(first);
+        Endpoint b = candidates.get(second);
+        return a.outstanding.get() <= b.outstanding.get() ? a : b;
+    }
+
+    private Mono<Void> checkHealth(Endpoint endpoint) {
+        return healthClient.get()
+                .uri(endpoint.resolve(URI.create(healthPath)))
+                .exchangeToMono(response -> Mono.just(response.statusCode().is2xxSuccessful()))
+                .timeout(healthInterval)
+                .onErrorReturn(false)
+                .doOnNext(endpoint::onHealthCheck)
+                .then();
+    }
+
+    private static long hash(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(key.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private class Endpoint {
+
+        private final URI uri;
+
+        private final AtomicInteger outstanding = new AtomicInteger();
+
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+        private volatile long ejectedUntil;
+
+        private volatile boolean healthy = true;
+
+        private final Timer success;
+
+        private final Timer failure;
+
+        Endpoint(URI uri, MeterRegistry meterRegistry) {
+            this.uri = uri;
+            // nanoTime may be negative, 0 is not a safe "never ejected"
+            this.ejectedUntil = System.nanoTime();
+            this.success = Timer.builder("gateway.server.requests").tag("endpoint", uri.toString())
+                    .tag("outcome", "success").register(meterRegistry);
+            this.failure = Timer.builder("gateway.server.requests").tag("endpoint", uri.toString())
+                    .tag("outcome", "failure").register(meterRegistry);
+            Gauge.builder("gateway.server.outstanding", outstanding, AtomicInteger::get)
+                    .tag("endpoint", uri.toString()).register(meterRegistry);
+            Gauge.builder("gateway.server.available", this, endpoint -> endpoint.isAvailable(System.nanoTime()) ? 1 : 0)
+                    .tag("endpoint", uri.toString()).register(meterRegistry);
+        }
+
+        boolean isAvailable(long now) {
+            return healthy && now - ejectedUntil >= 0;
+        }
+
+        URI resolve(URI request) {
+            return UriComponentsBuilder.fromUri(request)
+                    .scheme(uri.getScheme())
+                    .host(uri.getHost())
+                    .port(uri.getPort())
+                    .replacePath(uri.getRawPath() + request.getRawPath())
+                    .build(true)
+                    .toUri();
+        }
+
+        void onResponse(boolean succeeded, long nanos) {
+            if (succeeded) {
+                success.record(nanos, TimeUnit.NANOSECONDS);
+                consecutiveFailures.set(0);
+                return;
+            }
+            failure.record(nanos, TimeUnit.NANOSECONDS);
+            if (consecutiveFailures.incrementAndGet() >= ejectAfter) {
+                consecutiveFailures.set(0);
+                ejectedUntil = System.nanoTime() + ejectionNanos;
+                log.warn("Сервер {} исключен из балансировки на {} с", uri, TimeUnit.NANOSECONDS.toSeconds(ejectionNanos));
+            }
+        }
+
+        void onHealthCheck(boolean passed) {
+            if (passed != healthy) {
+                log.warn("Сервер {} {}", uri, passed ? "снова доступен" : "не прошел проверку здоровья");
+            }
+            healthy = passed;
+            if (passed) {
+                ejectedUntil = System.nanoTime();
+            }
+        }
+    }
+}
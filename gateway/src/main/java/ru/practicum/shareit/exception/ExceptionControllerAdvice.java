@@ -1,6 +1,7 @@
 package ru.practicum.shareit.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -8,7 +9,13 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import ru.practicum.shareit.exception.model.ExceptionMessage;
 import ru.practicum.shareit.exception.model.NotAuthenticatedException;
+import ru.practicum.shareit.exception.model.ServerOverloadedException;
+import ru.practicum.shareit.exception.model.ServerTimeoutException;
+import ru.practicum.shareit.exception.model.ServerUnavailableException;
+import ru.practicum.shareit.exception.model.TooManyRequestsException;
 
+import javax.servlet.http.HttpServletResponse;
+import java.time.Duration;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -41,6 +48,36 @@ public class ExceptionControllerAdvice {
         return new ExceptionMessage(e.getMessage());
     }
 
+    @ExceptionHandler({ServerUnavailableException.class})
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ExceptionMessage onServerUnavailableException(ServerUnavailableException e) {
+        log.warn("503 {}", e.getMessage());
+        return new ExceptionMessage(e.getMessage());
+    }
+
+    @ExceptionHandler({TooManyRequestsException.class})
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    public ExceptionMessage onTooManyRequestsException(TooManyRequestsException e, HttpServletResponse response) {
+        log.warn("429 {}", e.getMessage());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds(e.getRetryAfter())));
+        return new ExceptionMessage(e.getMessage());
+    }
+
+    @ExceptionHandler({ServerOverloadedException.class})
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ExceptionMessage onServerOverloadedException(ServerOverloadedException e, HttpServletResponse response) {
+        log.warn("503 {}", e.getMessage());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds(e.getRetryAfter())));
+        return new ExceptionMessage(e.getMessage());
+    }
+
+    @ExceptionHandler({ServerTimeoutException.class})
+    @ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+    public ExceptionMessage onServerTimeoutException(ServerTimeoutException e) {
+        log.warn("504 {}", e.getMessage());
+        return new ExceptionMessage(e.getMessage());
+    }
+
     @ExceptionHandler({RuntimeException.class})
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ExceptionMessage handleThrowable(final Throwable e) {
@@ -48,4 +85,7 @@ public class ExceptionControllerAdvice {
         return new ExceptionMessage(e.getMessage());
     }
 
+    private static long retryAfterSeconds(Duration retryAfter) {
+        return Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+    }
 }
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.exception.model;
+
+import java.time.Duration;
+
+public class ServerOverloadedException extends RuntimeException {
+    private final Duration retryAfter;
+
+    public ServerOverloadedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exception.model;
+
+public class ServerTimeoutException extends RuntimeException {
+    public ServerTimeoutException(String message) {
+        super(message);
+    }
+}
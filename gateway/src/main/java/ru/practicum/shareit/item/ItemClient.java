@@ -1,17 +1,24 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ClientHttpConnector;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ConcurrencyLimiter;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.RouteGuard;
+import ru.practicum.shareit.client.ServerEndpoints;
 import ru.practicum.shareit.comment.dto.request.CommentRequest;
 import ru.practicum.shareit.item.dto.request.ItemCreateRequest;
 import ru.practicum.shareit.item.dto.request.ItemUpdateRequest;
+import ru.practicum.shareit.request.ItemRequestClient;
 
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
@@ -20,49 +27,78 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(WebClient.Builder builder, ServerEndpoints serverEndpoints, RouteGuard routeGuard,
+                      ConcurrencyLimiter concurrencyLimiter, ClientHttpConnector shareitServerConnector,
+                      RequestCoalescer requestCoalescer, ResponseCache responseCache) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .uriBuilderFactory(new DefaultUriBuilderFactory(ServerEndpoints.BASE_URL + API_PREFIX))
+                        .filter(routeGuard.filter("items"))
+                        .filter(concurrencyLimiter.filter())
+                        .filter(serverEndpoints.loadBalancer())
+                        .clientConnector(shareitServerConnector)
+                        .build(),
+                requestCoalescer,
+                responseCache
         );
     }
 
-    public ResponseEntity<Object> getItem(Integer id, Integer userId) {
-        return get("/" + id, userId);
+    public Mono<ResponseEntity<byte[]>> getItem(Integer id, Integer userId) {
+        return forItem(id, getCached("/" + id, userId.longValue(), null));
     }
 
-    public ResponseEntity<Object> getAll(Integer userId, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
+    public Mono<ResponseEntity<byte[]>> getAll(Integer userId, Integer from, Integer size, String after) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "from", from,
                 "size", size
-        );
-        return get("?from={from}&size={size}", userId.longValue(), parameters);
+        ));
+        return expensive(get(withCursor("?from={from}&size={size}", after, parameters), userId.longValue(), parameters));
     }
 
-    public ResponseEntity<Object> saveItem(ItemCreateRequest itemDto, Integer userId) {
-        return post("", userId.longValue(), itemDto);
+    public Mono<ResponseEntity<byte[]>> saveItem(ItemCreateRequest itemDto, Integer userId) {
+        Mono<ResponseEntity<byte[]>> saved = evictingSearch(post("", userId.longValue(), itemDto));
+        if (itemDto.getRequestId() == null) {
+            return saved;
+        }
+        // the answered request lists its items
+        String requestPath = "/" + itemDto.getRequestId();
+        return evicting(saved, ItemRequestClient.class, requestPath::equals, null);
     }
 
-    public ResponseEntity<Object> updateItem(Integer id, ItemUpdateRequest itemDto, Integer userId) {
-        return patch("/" + id, userId.longValue(), itemDto);
+    public Mono<ResponseEntity<byte[]>> updateItem(Integer id, ItemUpdateRequest itemDto, Integer userId) {
+        return forItem(id, evictingItem(id, patch("/" + id, userId.longValue(), itemDto)));
     }
 
-    public ResponseEntity<Object> deleteItem(Integer id, Integer userId) {
-        return delete("/" + id, userId.longValue());
+    public Mono<ResponseEntity<byte[]>> deleteItem(Integer id, Integer userId) {
+        return forItem(id, evictingItem(id, delete("/" + id, userId.longValue())));
     }
 
-    public ResponseEntity<Object> findByText(String text, Integer from, Integer size) {
+    public Mono<ResponseEntity<byte[]>> findByText(String text, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
                 "size", size
         );
-        return get("/search?text={text}&from={from}&size={size}", null, parameters);
+        return onRoute("search", expensive(getCached("/search?text={text}&from={from}&size={size}", null,
+                parameters)));
+    }
+
+    public Mono<ResponseEntity<byte[]>> addComment(CommentRequest dto, Integer itemId, Integer userId) {
+        String itemPath = "/" + itemId;
+        return forItem(itemId, evicting(post(itemPath + "/comment", userId.longValue(), dto), ItemClient.class,
+                itemPath::equals, null));
+    }
+
+    /**
+     * The item as seen by every user, the search pages and the requests, which list their items.
+     */
+    private Mono<ResponseEntity<byte[]>> evictingItem(Integer id, Mono<ResponseEntity<byte[]>> write) {
+        String itemPath = "/" + id;
+        Mono<ResponseEntity<byte[]>> evicting = evicting(write, ItemClient.class, itemPath::equals, null);
+        return evicting(evictingSearch(evicting), ItemRequestClient.class, path -> true, null);
     }
 
-    public ResponseEntity<Object> addComment(CommentRequest dto, Integer itemId, Integer userId) {
-        return post("/" + itemId + "/comment", userId.longValue(), dto);
+    private Mono<ResponseEntity<byte[]>> evictingSearch(Mono<ResponseEntity<byte[]>> write) {
+        return evicting(write, ItemClient.class, path -> path.startsWith("/search"), null);
     }
 }
@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.comment.dto.request.CommentRequest;
 import ru.practicum.shareit.exception.model.NotAuthenticatedException;
 import ru.practicum.shareit.item.dto.request.ItemCreateRequest;
@@ -20,16 +21,17 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getItem(@PathVariable Integer id, @RequestHeader("X-Sharer-User-Id") Integer userId) {
+    public Mono<ResponseEntity<byte[]>> getItem(@PathVariable Integer id, @RequestHeader("X-Sharer-User-Id") Integer userId) {
         log.info("Пришел запрос GET /items/{} userId={}", id, userId);
         return itemClient.getItem(id, userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllItem(
+    public Mono<ResponseEntity<byte[]>> getAllItem(
             @RequestParam(value = "from", defaultValue = "0") Integer from,
             @RequestParam(name = "size", defaultValue = "20") Integer size,
-            @RequestHeader(name = "X-Sharer-User-Id", required = false) Integer userId) {
+            @RequestHeader(name = "X-Sharer-User-Id", required = false) Integer userId,
+            @RequestParam(name = "after", required = false) String after) {
         log.info("Пришел запрос GET /items userId={}", userId);
         if (from < 0 || size < 1) {
             throw new IllegalArgumentException("Page must be from>0 and size>1");
@@ -37,11 +39,11 @@ public class ItemController {
         if (userId == null) {
             throw new NotAuthenticatedException("Header X-Sharer-User-Id requested");
         }
-        return itemClient.getAll(userId, from, size);
+        return itemClient.getAll(userId, from, size, after);
     }
 
     @PostMapping
-    public ResponseEntity<Object> saveItem(@RequestBody @Valid ItemCreateRequest itemDto,
+    public Mono<ResponseEntity<byte[]>> saveItem(@RequestBody @Valid ItemCreateRequest itemDto,
                                            @RequestHeader(name = "X-Sharer-User-Id", required = false) Integer userId) {
         log.info("Пришел запрос POST /items userId{}: {}", userId, itemDto);
         if (userId == null) {
@@ -51,7 +53,7 @@ public class ItemController {
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> updateItem(@PathVariable Integer id,
+    public Mono<ResponseEntity<byte[]>> updateItem(@PathVariable Integer id,
                                              @RequestBody @Valid ItemUpdateRequest itemDto,
                                              @RequestHeader(name = "X-Sharer-User-Id", required = false) Integer userId) {
         log.info("Пришел запрос PATCH /items/{} userId={}", id, userId);
@@ -62,7 +64,7 @@ public class ItemController {
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Object> deleteItem(@PathVariable Integer id,
+    public Mono<ResponseEntity<byte[]>> deleteItem(@PathVariable Integer id,
                                              @RequestHeader(name = "X-Sharer-User-Id", required = false) Integer userId) {
         log.info("Пришел запрос DELETE /items/{} userId={}", id, userId);
         if (userId == null) {
@@ -72,7 +74,7 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItem(@RequestParam String text,
+    public Mono<ResponseEntity<byte[]>> searchItem(@RequestParam String text,
                                              @RequestParam(value = "from", defaultValue = "0") Integer from,
                                              @RequestParam(name = "size", defaultValue = "20") Integer size) {
         log.info("Пришел запрос GET /items/search?text={}", text);
@@ -83,7 +85,7 @@ public class ItemController {
     }
 
     @PostMapping("/{id}/comment")
-    public ResponseEntity<Object> addComment(
+    public Mono<ResponseEntity<byte[]>> addComment(
             @RequestBody @Valid CommentRequest commentRequest,
             @PathVariable Integer id,
             @RequestHeader(name = "X-Sharer-User-Id", required = false) Integer userId) {
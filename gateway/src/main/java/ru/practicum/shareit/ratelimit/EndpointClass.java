@@ -0,0 +1,32 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.springframework.http.HttpMethod;
+
+/**
+ * Groups of gateway endpoints sharing one rate limit, from the most to the least expensive.
+ */
+public enum EndpointClass {
+    SEARCH,
+    LIST,
+    BOOKING,
+    DEFAULT;
+
+    static EndpointClass of(String method, String pattern) {
+        if (!HttpMethod.GET.matches(method)) {
+            return HttpMethod.POST.matches(method) && pattern.equals("/bookings") ? BOOKING : DEFAULT;
+        }
+        switch (pattern) {
+            case "/items/search":
+                return SEARCH;
+            case "/items":
+            case "/bookings":
+            case "/bookings/owner":
+            case "/requests":
+            case "/requests/all":
+            case "/users":
+                return LIST;
+            default:
+                return DEFAULT;
+        }
+    }
+}
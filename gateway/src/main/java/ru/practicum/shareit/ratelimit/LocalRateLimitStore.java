@@ -0,0 +1,46 @@
+package ru.practicum.shareit.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Buckets of this gateway node, also the stand-in for the shared store in tests.
+ */
+public class LocalRateLimitStore implements RateLimitStore {
+
+    private final Cache<String, AtomicLong> buckets;
+
+    private final LongSupplier nanoTime;
+
+    public LocalRateLimitStore(RateLimitProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    LocalRateLimitStore(RateLimitProperties properties, LongSupplier nanoTime) {
+        this.nanoTime = nanoTime;
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(properties.getIdleTimeout())
+                .maximumSize(properties.getMaxBuckets())
+                .build();
+    }
+
+    @Override
+    public long tryAcquire(String key, RateLimitProperties.Limit limit) {
+        long now = nanoTime.getAsLong();
+        AtomicLong bucket = buckets.get(key, k -> new AtomicLong(now));
+        while (true) {
+            long arrival = bucket.get();
+            long next = now + Math.max(arrival - now, 0) + limit.intervalNanos();
+            long wait = next - now - limit.toleranceNanos();
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Per user token buckets in front of all gateway controllers.
+ */
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+@ConditionalOnProperty(name = "gateway.rate-limit.enabled", matchIfMissing = true)
+public class RateLimitConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "gateway.rate-limit.store", havingValue = "redis")
+    public RateLimitStore redisRateLimitStore(StringRedisTemplate redisTemplate) {
+        return new RedisRateLimitStore(redisTemplate);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "gateway.rate-limit.store", havingValue = "local", matchIfMissing = true)
+    public RateLimitStore localRateLimitStore(RateLimitProperties properties) {
+        return new LocalRateLimitStore(properties);
+    }
+
+    @Bean
+    public WebMvcConfigurer rateLimitConfigurer(RateLimitProperties properties, RateLimitStore rateLimitStore,
+                                                MeterRegistry meterRegistry) {
+        RateLimitInterceptor interceptor = new RateLimitInterceptor(properties, rateLimitStore, meterRegistry);
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(interceptor).excludePathPatterns("/error");
+            }
+        };
+    }
+}
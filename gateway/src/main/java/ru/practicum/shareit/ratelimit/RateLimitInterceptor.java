@@ -0,0 +1,66 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.practicum.shareit.exception.model.TooManyRequestsException;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Limits every user, or the client address for requests without a user, separately for each
+ * {@link EndpointClass}.
+ */
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private final RateLimitProperties properties;
+
+    private final RateLimitStore store;
+
+    private final Map<EndpointClass, Counter> rejections = new EnumMap<>(EndpointClass.class);
+
+    public RateLimitInterceptor(RateLimitProperties properties, RateLimitStore store, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.store = store;
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            rejections.put(endpointClass, Counter.builder("gateway.rate-limit.rejections")
+                    .tag("endpoint", endpointClass.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // the async dispatch that writes the server's response is the same request
+        if (request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        EndpointClass endpointClass = EndpointClass.of(request.getMethod(),
+                pattern != null ? pattern.toString() : request.getRequestURI());
+        RateLimitProperties.Limit limit = properties.limitFor(endpointClass);
+        if (limit.isUnlimited()) {
+            return true;
+        }
+        long wait = store.tryAcquire(endpointClass + ":" + clientKey(request), limit);
+        if (wait > 0) {
+            rejections.get(endpointClass).increment();
+            throw new TooManyRequestsException("Too many requests", Duration.ofNanos(wait));
+        }
+        return true;
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        String userId = request.getHeader("X-Sharer-User-Id");
+        if (userId != null && !userId.isBlank()) {
+            return "user:" + userId.trim();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@ConfigurationProperties("gateway.rate-limit")
+@Getter
+@Setter
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Where the buckets live: in this gateway or in Redis, shared by all gateway nodes.
+     */
+    private Store store = Store.LOCAL;
+
+    /**
+     * A bucket not used for this long is dropped; a full bucket is the same as no bucket.
+     */
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    private long maxBuckets = 1_000_000;
+
+    private Map<EndpointClass, Limit> limits = new EnumMap<>(EndpointClass.class);
+
+    public Limit limitFor(EndpointClass endpointClass) {
+        return limits.getOrDefault(endpointClass, limits.getOrDefault(EndpointClass.DEFAULT, Limit.UNLIMITED));
+    }
+
+    public enum Store {
+        LOCAL,
+        REDIS
+    }
+
+    @Getter
+    @Setter
+    public static class Limit {
+
+        static final Limit UNLIMITED = new Limit();
+
+        /**
+         * Requests a client may make at once after being idle.
+         */
+        private int capacity;
+
+        /**
+         * Requests a client may make per second over time, 0 is no limit.
+         */
+        private double perSecond;
+
+        boolean isUnlimited() {
+            return perSecond <= 0;
+        }
+
+        long intervalNanos() {
+            return (long) (1_000_000_000L / perSecond);
+        }
+
+        long toleranceNanos() {
+            return intervalNanos() * Math.max(1, capacity);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.ratelimit;
+
+/**
+ * Token buckets kept as GCRA: one theoretical arrival time per bucket, moved forward by the
+ * emission interval on every request, which is the same as a bucket refilled at per-second
+ * with room for capacity tokens, but needs a single compare-and-set to update.
+ */
+public interface RateLimitStore {
+
+    /**
+     * Takes a token from the bucket.
+     *
+     * @return 0 if the request is allowed, otherwise nanoseconds until the next token
+     */
+    long tryAcquire(String key, RateLimitProperties.Limit limit);
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Buckets shared by all gateway nodes. The script reads the Redis clock, so nodes do not need
+ * synchronized clocks, and sets the key to expire once the bucket is full again. If Redis is
+ * unavailable the request is let through.
+ */
+@Slf4j
+public class RedisRateLimitStore implements RateLimitStore {
+
+    private static final String KEY_PREFIX = "shareit:rate-limit:";
+
+    private static final RedisScript<Long> GCRA = new DefaultRedisScript<>(
+            "local time = redis.call('TIME')\n"
+                    + "local now = time[1] * 1000000 + time[2]\n"
+                    + "local interval = tonumber(ARGV[1])\n"
+                    + "local tolerance = tonumber(ARGV[2])\n"
+                    + "local arrival = tonumber(redis.call('GET', KEYS[1]) or now)\n"
+                    + "local next = math.max(arrival, now) + interval\n"
+                    + "local wait = next - now - tolerance\n"
+                    + "if wait > 0 then return wait end\n"
+                    + "redis.call('SET', KEYS[1], next, 'PX', math.ceil((next - now) / 1000))\n"
+                    + "return 0",
+            Long.class);
+
+    private final StringRedisTemplate redis;
+
+    public RedisRateLimitStore(StringRedisTemplate redis) {
+        this.redis = redis;
+    }
+
+    @Override
+    public long tryAcquire(String key, RateLimitProperties.Limit limit) {
+        try {
+            Long waitMicros = redis.execute(GCRA, List.of(KEY_PREFIX + key),
+                    String.valueOf(TimeUnit.NANOSECONDS.toMicros(limit.intervalNanos())),
+                    String.valueOf(TimeUnit.NANOSECONDS.toMicros(limit.toleranceNanos())));
+            return waitMicros != null ? TimeUnit.MICROSECONDS.toNanos(waitMicros) : 0;
+        } catch (DataAccessException e) {
+            log.warn("Лимит запросов не проверен, Redis недоступен: {}", e.getMessage());
+            return 0;
+        }
+    }
+}
@@ -1,15 +1,21 @@
 package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ClientHttpConnector;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ConcurrencyLimiter;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.RouteGuard;
+import ru.practicum.shareit.client.ServerEndpoints;
 import ru.practicum.shareit.request.dto.ItemRequestRequest;
 
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
@@ -18,32 +24,39 @@ public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(WebClient.Builder builder, ServerEndpoints serverEndpoints, RouteGuard routeGuard,
+                             ConcurrencyLimiter concurrencyLimiter, ClientHttpConnector shareitServerConnector,
+                             RequestCoalescer requestCoalescer, ResponseCache responseCache) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .uriBuilderFactory(new DefaultUriBuilderFactory(ServerEndpoints.BASE_URL + API_PREFIX))
+                        .filter(routeGuard.filter("requests"))
+                        .filter(concurrencyLimiter.filter())
+                        .filter(serverEndpoints.loadBalancer())
+                        .clientConnector(shareitServerConnector)
+                        .build(),
+                requestCoalescer,
+                responseCache
         );
     }
 
-    public ResponseEntity<Object> addItemRequest(ItemRequestRequest dto, Integer userId) {
+    public Mono<ResponseEntity<byte[]>> addItemRequest(ItemRequestRequest dto, Integer userId) {
         return post("", userId.longValue(), dto);
     }
 
-    public ResponseEntity<Object> getOwnItemRequest(Integer userId) {
-        return get("", userId.longValue());
+    public Mono<ResponseEntity<byte[]>> getOwnItemRequest(Integer userId) {
+        return expensive(get("", userId.longValue()));
     }
 
-    public ResponseEntity<Object> getAllItemRequest(Integer userId, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
+    public Mono<ResponseEntity<byte[]>> getAllItemRequest(Integer userId, Integer from, Integer size, String after) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "from", from,
                 "size", size
-        );
-        return get("/all?from={from}&size={size}", userId.longValue(), parameters);
+        ));
+        return expensive(get(withCursor("/all?from={from}&size={size}", after, parameters), userId.longValue(), parameters));
     }
 
-    public ResponseEntity<Object> getItemRequest(Integer id, Integer userId) {
-        return get("/" + id, userId);
+    public Mono<ResponseEntity<byte[]>> getItemRequest(Integer id, Integer userId) {
+        return getCached("/" + id, userId.longValue(), null);
     }
 }
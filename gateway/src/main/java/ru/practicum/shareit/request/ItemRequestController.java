@@ -5,6 +5,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.exception.model.NotAuthenticatedException;
 import ru.practicum.shareit.request.dto.ItemRequestRequest;
 
@@ -20,7 +21,7 @@ public class ItemRequestController {
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public ResponseEntity<Object> addRequest(@Valid @RequestBody ItemRequestRequest itemRequestRequest,
+    public Mono<ResponseEntity<byte[]>> addRequest(@Valid @RequestBody ItemRequestRequest itemRequestRequest,
                                              @RequestHeader(name = "X-Sharer-User-Id", required = false) Integer userId) {
         log.info("Пришел запрос POST /requests userId={}", userId);
         if (userId == null) {
@@ -31,7 +32,7 @@ public class ItemRequestController {
 
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
-    public ResponseEntity<Object> getOwnRequests(@RequestHeader(name = "X-Sharer-User-Id", required = false) Integer userId) {
+    public Mono<ResponseEntity<byte[]>> getOwnRequests(@RequestHeader(name = "X-Sharer-User-Id", required = false) Integer userId) {
         log.info("Пришел запрос GET /requests userId={}", userId);
         if (userId == null) {
             throw new NotAuthenticatedException("Header X-Sharer-User-Id requested");
@@ -41,10 +42,11 @@ public class ItemRequestController {
 
     @GetMapping("/all")
     @ResponseStatus(HttpStatus.OK)
-    public ResponseEntity<Object> getAllRequests(
+    public Mono<ResponseEntity<byte[]>> getAllRequests(
             @RequestHeader(name = "X-Sharer-User-Id", required = false) Integer userId,
             @RequestParam(value = "from", defaultValue = "0") Integer from,
-            @RequestParam(name = "size", defaultValue = "20") Integer size
+            @RequestParam(name = "size", defaultValue = "20") Integer size,
+            @RequestParam(name = "after", required = false) String after
     ) {
         log.info("Пришел запрос GET /requests/all?from={}&size={}", from, size);
         if (userId == null) {
@@ -53,12 +55,12 @@ public class ItemRequestController {
         if (from < 0 || size < 1) {
             throw new IllegalArgumentException("Page must be from>0 and size>1");
         }
-        return itemRequestClient.getAllItemRequest(userId, from, size);
+        return itemRequestClient.getAllItemRequest(userId, from, size, after);
     }
 
     @GetMapping("/{id}")
     @ResponseStatus(HttpStatus.OK)
-    public ResponseEntity<Object> getRequest(@PathVariable Integer id,
+    public Mono<ResponseEntity<byte[]>> getRequest(@PathVariable Integer id,
                                              @RequestHeader(name = "X-Sharer-User-Id", required = false) Integer userId) {
         log.info("Пришел запрос GET /requests/{} userId={}", id, userId);
         if (userId == null) {
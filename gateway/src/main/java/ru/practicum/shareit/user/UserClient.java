@@ -1,13 +1,17 @@
 package ru.practicum.shareit.user;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ClientHttpConnector;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ConcurrencyLimiter;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.RouteGuard;
+import ru.practicum.shareit.client.ServerEndpoints;
 import ru.practicum.shareit.user.dto.request.UserCreateRequest;
 import ru.practicum.shareit.user.dto.request.UserUpdateRequest;
 
@@ -17,32 +21,38 @@ public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(WebClient.Builder builder, ServerEndpoints serverEndpoints, RouteGuard routeGuard,
+                      ConcurrencyLimiter concurrencyLimiter, ClientHttpConnector shareitServerConnector,
+                      RequestCoalescer requestCoalescer) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .uriBuilderFactory(new DefaultUriBuilderFactory(ServerEndpoints.BASE_URL + API_PREFIX))
+                        .filter(routeGuard.filter("users"))
+                        .filter(concurrencyLimiter.filter())
+                        .filter(serverEndpoints.loadBalancer())
+                        .clientConnector(shareitServerConnector)
+                        .build(),
+                requestCoalescer
         );
     }
 
-    public ResponseEntity<Object> getUser(Integer id) {
+    public Mono<ResponseEntity<byte[]>> getUser(Integer id) {
         return get("/" + id);
     }
 
-    public ResponseEntity<Object> getAll() {
-        return get("");
+    public Mono<ResponseEntity<byte[]>> getAll() {
+        return expensive(get(""));
     }
 
-    public ResponseEntity<Object> saveUser(UserCreateRequest userDto) {
+    public Mono<ResponseEntity<byte[]>> saveUser(UserCreateRequest userDto) {
         return post("", userDto);
     }
 
-    public ResponseEntity<Object> updateUser(Integer id, UserUpdateRequest userDto) {
+    public Mono<ResponseEntity<byte[]>> updateUser(Integer id, UserUpdateRequest userDto) {
         return patch("/" + id, userDto);
     }
 
-    public ResponseEntity<Object> deleteUser(Integer id) {
+    public Mono<ResponseEntity<byte[]>> deleteUser(Integer id) {
         return delete("/" + id);
     }
 }
@@ -0,0 +1,149 @@
+package ru.practicum.shareit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Closed-loop load against GET /items/{id} with a stub server answering after a fixed latency.
+ * Reports throughput and the CPU time spent by the gateway's own threads (Tomcat workers and
+ * the HTTP client's event loops), so builds can be compared per CPU second, not only per second.
+ * Run with {@code mvn -pl gateway test -Dtest=GatewayLoadTest -Dloadtest=true}.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "server.tomcat.threads.max=8",
+        "server.tomcat.threads.min-spare=8",
+        "shareit-server.limit.initial=200",
+        "logging.level.org.springframework.web.client.RestTemplate=INFO",
+        "logging.level.org.springframework.web.reactive.function.client.ExchangeFunctions=INFO"
+})
+class GatewayLoadTest {
+
+    private static final int IN_FLIGHT = 200;
+
+    private static final Duration SERVER_LATENCY = Duration.ofMillis(50);
+
+    private static final Duration WARM_UP = Duration.ofSeconds(5);
+
+    private static final Duration MEASURED = Duration.ofSeconds(15);
+
+    private static final List<String> GATEWAY_THREADS = List.of("http-nio-", "reactor-http-");
+
+    private static StubServer server;
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void serverProperties(DynamicPropertyRegistry registry) throws IOException {
+        server = new StubServer();
+        server.onRequest((request, exchange) -> {
+            try {
+                Thread.sleep(SERVER_LATENCY.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            StubServer.respond(exchange, 200, "{\"id\":1,\"name\":\"Дрель\",\"available\":true}");
+        });
+        registry.add("shareit-server.url", server::url);
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.close();
+    }
+
+    @Test
+    void forwardItemReads() {
+        run(WARM_UP);
+        Map<Long, Long> cpuBefore = gatewayCpuTime();
+        long start = System.nanoTime();
+
+        Result result = run(MEASURED);
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        double cpuSeconds = cpuSince(cpuBefore) / 1e9;
+        long completed = result.completed.get();
+        log.info("{} запросов за {} с: {} req/s, CPU потоков шлюза {} с, {} запросов на CPU-секунду, ошибок {}",
+                completed, String.format("%.1f", seconds), String.format("%.0f", completed / seconds),
+                String.format("%.2f", cpuSeconds), String.format("%.0f", completed / cpuSeconds), result.failed);
+        Assertions.assertEquals(0, result.failed.get());
+    }
+
+    private Result run(Duration duration) {
+        Result result = new Result();
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<CompletableFuture<Void>> users = IntStream.range(0, IN_FLIGHT)
+                .mapToObj(user -> loop(user, deadline, result))
+                .collect(Collectors.toList());
+        CompletableFuture.allOf(users.toArray(new CompletableFuture[0])).join();
+        return result;
+    }
+
+    private CompletableFuture<Void> loop(int user, long deadline, Result result) {
+        if (System.nanoTime() >= deadline) {
+            return CompletableFuture.completedFuture(null);
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/items/1"))
+                .header("X-Sharer-User-Id", String.valueOf(user + 1))
+                .build();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .thenCompose(response -> {
+                    (response.statusCode() == 200 ? result.completed : result.failed).incrementAndGet();
+                    return loop(user, deadline, result);
+                });
+    }
+
+    private Map<Long, Long> gatewayCpuTime() {
+        Map<Long, Long> cpuTime = new HashMap<>();
+        for (long id : threads.getAllThreadIds()) {
+            ThreadInfo info = threads.getThreadInfo(id);
+            if (info != null && GATEWAY_THREADS.stream().anyMatch(info.getThreadName()::startsWith)) {
+                cpuTime.put(id, threads.getThreadCpuTime(id));
+            }
+        }
+        return cpuTime;
+    }
+
+    private long cpuSince(Map<Long, Long> before) {
+        return gatewayCpuTime().entrySet().stream()
+                .mapToLong(thread -> thread.getValue() - before.getOrDefault(thread.getKey(), 0L))
+                .sum();
+    }
+
+    private static class Result {
+
+        private final AtomicLong completed = new AtomicLong();
+
+        private final AtomicLong failed = new AtomicLong();
+    }
+}
@@ -0,0 +1,85 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Two Tomcat threads and a server answering in 500 ms: a gateway holding a thread for every
+ * round trip would need 20 / 2 * 500 ms = 5 s for 20 concurrent requests.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "server.tomcat.threads.max=2",
+        "server.tomcat.threads.min-spare=2",
+        "shareit-server.limit.initial=100"
+})
+class NonBlockingForwardingTest {
+
+    private static final int REQUESTS = 20;
+
+    private static final Duration SERVER_LATENCY = Duration.ofMillis(500);
+
+    private static StubServer server;
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void serverProperties(DynamicPropertyRegistry registry) throws IOException {
+        server = new StubServer();
+        server.onRequest((request, exchange) -> {
+            try {
+                Thread.sleep(SERVER_LATENCY.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            StubServer.respond(exchange, 200, "{\"id\":1}");
+        });
+        registry.add("shareit-server.url", server::url);
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.close();
+    }
+
+    @Test
+    void concurrentRequestsShouldNotWaitForTomcatThreads() {
+        HttpClient client = HttpClient.newHttpClient();
+        // the first request also pays for connecting and class loading
+        client.sendAsync(request(0), HttpResponse.BodyHandlers.discarding()).join();
+        server.requests().clear();
+        long start = System.nanoTime();
+
+        List<CompletableFuture<HttpResponse<String>>> responses = IntStream.rangeClosed(1, REQUESTS)
+                .mapToObj(i -> client.sendAsync(request(i), HttpResponse.BodyHandlers.ofString()))
+                .collect(Collectors.toList());
+        CompletableFuture.allOf(responses.toArray(new CompletableFuture[0])).join();
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        responses.forEach(response -> Assertions.assertEquals(200, response.join().statusCode()));
+        Assertions.assertEquals(REQUESTS, server.requests().size());
+        Assertions.assertTrue(elapsed.compareTo(SERVER_LATENCY.multipliedBy(5)) < 0, "took " + elapsed);
+    }
+
+    private HttpRequest request(int userId) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/items/" + userId))
+                .header("X-Sharer-User-Id", String.valueOf(userId))
+                .build();
+    }
+}
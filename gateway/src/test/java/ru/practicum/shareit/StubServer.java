@@ -0,0 +1,95 @@
+package ru.practicum.shareit;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * shareit-server stand-in on a free local port, records every request it gets.
+ */
+public class StubServer implements AutoCloseable {
+
+    private final HttpServer server;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private final List<RecordedRequest> requests = new CopyOnWriteArrayList<>();
+
+    private volatile Handler handler = (request, exchange) -> respond(exchange, 200, "{}");
+
+    public StubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 100);
+        server.setExecutor(executor);
+        server.createContext("/", exchange -> {
+            RecordedRequest request = new RecordedRequest(exchange.getRequestMethod(),
+                    exchange.getRequestURI().toString(), exchange.getRequestHeaders(),
+                    exchange.getRequestBody().readAllBytes());
+            requests.add(request);
+            try {
+                handler.handle(request, exchange);
+            } finally {
+                exchange.close();
+            }
+        });
+        server.start();
+    }
+
+    public static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    public String url() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public void onRequest(Handler handler) {
+        this.handler = handler;
+    }
+
+    public List<RecordedRequest> requests() {
+        return requests;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @FunctionalInterface
+    public interface Handler {
+
+        void handle(RecordedRequest request, HttpExchange exchange) throws IOException;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class RecordedRequest {
+
+        private final String method;
+
+        private final String uri;
+
+        private final Headers headers;
+
+        private final byte[] body;
+
+        public String getBodyAsString() {
+            return new String(body, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.StubServer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+
+class BaseClientTest {
+
+    private final RequestCoalescer requestCoalescer = new RequestCoalescer(Duration.ofSeconds(5),
+            new SimpleMeterRegistry());
+
+    private StubServer server;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new StubServer();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        server.close();
+    }
+
+    @Test
+    void responseShouldPassThroughBytesAndEndToEndHeaders() {
+        String body = "{ \"id\" : 1,\n  \"name\" : \"Дрель\" }";
+        WebClient web = WebClient.builder()
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.CREATED)
+                        .header(HttpHeaders.CONTENT_TYPE, "application/json")
+                        .header(HttpHeaders.ETAG, "\"1\"")
+                        .header(HttpHeaders.CONNECTION, "keep-alive")
+                        .header(HttpHeaders.TRANSFER_ENCODING, "chunked")
+                        .body(body)
+                        .build()))
+                .build();
+
+        ResponseEntity<byte[]> response = new TestClient(web, requestCoalescer, null).read("/items/1", 1L).block();
+
+        Assertions.assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        Assertions.assertArrayEquals(body.getBytes(StandardCharsets.UTF_8), response.getBody());
+        Assertions.assertEquals("\"1\"", response.getHeaders().getETag());
+        Assertions.assertFalse(response.getHeaders().containsKey(HttpHeaders.CONNECTION));
+        Assertions.assertFalse(response.getHeaders().containsKey(HttpHeaders.TRANSFER_ENCODING));
+    }
+
+    @Test
+    void errorResponseShouldPassThroughBytes() {
+        String body = "{\"error\":\"Item not found\"}";
+        server.onRequest((request, exchange) -> StubServer.respond(exchange, 404, body));
+
+        ResponseEntity<byte[]> response = client().read("/items/1", 1L).block();
+
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        Assertions.assertArrayEquals(body.getBytes(StandardCharsets.UTF_8), response.getBody());
+        Assertions.assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+    }
+
+    @Test
+    void validatedRequestBodyShouldBeForwardedAsSent() throws Exception {
+        byte[] sent = "{\"name\":  \"Дрель\", \"extra\": [1, 2]}".getBytes(StandardCharsets.UTF_8);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        HttpInputMessage read = new RawRequestBodyAdvice().beforeBodyRead(new MockHttpInputMessage(sent),
+                null, Object.class, MappingJackson2HttpMessageConverter.class);
+        // the converter still reads the whole body
+        Assertions.assertArrayEquals(sent, StreamUtils.copyToByteArray(read.getBody()));
+
+        client().write("", 1L, Map.of("name", "Дрель")).block();
+
+        Assertions.assertArrayEquals(sent, server.requests().get(0).getBody());
+        Assertions.assertEquals("1", server.requests().get(0).getHeaders().getFirst("X-Sharer-User-Id"));
+    }
+
+    @Test
+    void bodyOutsideRequestShouldBeSerialized() {
+        client().write("", 1L, Map.of("name", "Дрель")).block();
+
+        Assertions.assertEquals("{\"name\":\"Дрель\"}", server.requests().get(0).getBodyAsString());
+    }
+
+    private TestClient client() {
+        return new TestClient(WebClient.create(server.url()), requestCoalescer, null);
+    }
+}
@@ -0,0 +1,152 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.exception.model.ServerOverloadedException;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class ConcurrencyLimiterTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ClientRequest request = ClientRequest.create(HttpMethod.GET,
+            URI.create(ServerEndpoints.BASE_URL + "/items/1")).build();
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private ExchangeFilterFunction limiter(int initialLimit, Duration maxLatency) {
+        return new ConcurrencyLimiter(initialLimit, 4, 200, maxLatency, 0.9, 0.75, Duration.ofSeconds(2),
+                meterRegistry).filter();
+    }
+
+    private ExchangeFunction answer(HttpStatus status) {
+        return request -> {
+            calls.incrementAndGet();
+            return Mono.just(ClientResponse.create(status).build());
+        };
+    }
+
+    private ExchangeFunction hang() {
+        return request -> {
+            calls.incrementAndGet();
+            return Mono.never();
+        };
+    }
+
+    private double limit() {
+        return meterRegistry.get("gateway.limit.current").gauge().value();
+    }
+
+    @Test
+    void fastResponseWhileLimitIsInUseShouldRaiseLimit() {
+        ExchangeFilterFunction limiter = limiter(2, Duration.ofMinutes(1));
+
+        limiter.filter(request, answer(HttpStatus.OK)).block();
+
+        Assertions.assertEquals(3, limit());
+    }
+
+    @Test
+    void fastResponseWhileLimitIsMostlyIdleShouldKeepLimit() {
+        ExchangeFilterFunction limiter = limiter(20, Duration.ofMinutes(1));
+
+        limiter.filter(request, answer(HttpStatus.OK)).block();
+
+        Assertions.assertEquals(20, limit());
+    }
+
+    @Test
+    void failedResponsesShouldCutLimitOncePerMaxLatency() {
+        ExchangeFilterFunction limiter = limiter(20, Duration.ofMinutes(1));
+
+        limiter.filter(request, answer(HttpStatus.SERVICE_UNAVAILABLE)).block();
+        limiter.filter(request, answer(HttpStatus.BAD_GATEWAY)).block();
+
+        Assertions.assertEquals(18, limit(), 0.001);
+    }
+
+    @Test
+    void serverErrorShouldKeepLimit() {
+        ExchangeFilterFunction limiter = limiter(20, Duration.ofMinutes(1));
+
+        limiter.filter(request, answer(HttpStatus.INTERNAL_SERVER_ERROR)).block();
+
+        Assertions.assertEquals(20, limit());
+    }
+
+    @Test
+    void slowResponseShouldCutLimit() {
+        ExchangeFilterFunction limiter = limiter(20, Duration.ofMillis(10));
+
+        limiter.filter(request, next -> answer(HttpStatus.OK).exchange(next).delayElement(Duration.ofMillis(50)))
+                .block();
+
+        Assertions.assertEquals(18, limit(), 0.001);
+    }
+
+    @Test
+    void cancelledCallShouldCutLimit() {
+        ExchangeFilterFunction limiter = limiter(20, Duration.ofMinutes(1));
+
+        limiter.filter(request, hang()).subscribe().dispose();
+
+        Assertions.assertEquals(18, limit(), 0.001);
+        Assertions.assertEquals(0, meterRegistry.get("gateway.limit.in.flight").gauge().value());
+    }
+
+    @Test
+    void limitShouldNotDropBelowMin() {
+        ExchangeFilterFunction limiter = limiter(4, Duration.ofMinutes(1));
+
+        limiter.filter(request, answer(HttpStatus.GATEWAY_TIMEOUT)).block();
+
+        Assertions.assertEquals(4, limit());
+    }
+
+    @Test
+    void requestOverLimitShouldBeShedWithRetryAfter() {
+        ExchangeFilterFunction limiter = limiter(4, Duration.ofMinutes(1));
+        for (int i = 0; i < 4; i++) {
+            limiter.filter(request, hang()).subscribe();
+        }
+
+        ServerOverloadedException e = Assertions.assertThrows(ServerOverloadedException.class,
+                () -> limiter.filter(request, answer(HttpStatus.OK)).block());
+
+        Assertions.assertEquals(Duration.ofSeconds(2), e.getRetryAfter());
+        Assertions.assertEquals(4, calls.get());
+        Assertions.assertEquals(1, meterRegistry.get("gateway.limit.rejections").tag("priority", "cheap")
+                .counter().count());
+    }
+
+    @Test
+    void expensiveRequestShouldBeShedBeforeCheapOne() {
+        ExchangeFilterFunction limiter = limiter(4, Duration.ofMinutes(1));
+        for (int i = 0; i < 3; i++) {
+            limiter.filter(request, hang()).contextWrite(ConcurrencyLimiter.expensive()).subscribe();
+        }
+
+        Assertions.assertThrows(ServerOverloadedException.class, () -> limiter.filter(request, answer(HttpStatus.OK))
+                .contextWrite(ConcurrencyLimiter.expensive())
+                .block());
+        Disposable cheap = limiter.filter(request, hang()).subscribe();
+
+        Assertions.assertEquals(4, calls.get());
+        Assertions.assertEquals(1, meterRegistry.get("gateway.limit.rejections").tag("priority", "expensive")
+                .counter().count());
+        cheap.dispose();
+    }
+}
@@ -0,0 +1,111 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.resources.ConnectionProvider;
+import ru.practicum.shareit.StubServer;
+import ru.practicum.shareit.exception.model.ServerTimeoutException;
+import ru.practicum.shareit.exception.model.ServerUnavailableException;
+
+import java.time.Duration;
+
+class HttpTransportConfigTest {
+
+    private final HttpTransportConfig config = new HttpTransportConfig();
+
+    private StubServer server;
+
+    private ConnectionProvider connectionProvider;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new StubServer();
+        connectionProvider = provider(Duration.ofMillis(200));
+    }
+
+    private ConnectionProvider provider(Duration poolTimeout) {
+        return config.shareitServerConnectionProvider(1, 1, Duration.ofSeconds(30), Duration.ofSeconds(30),
+                poolTimeout);
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionProvider.dispose();
+        server.close();
+    }
+
+    private TestClient client(String url, Duration readTimeout) {
+        WebClient web = WebClient.builder()
+                .baseUrl(url)
+                .clientConnector(config.shareitServerConnector(connectionProvider, Duration.ofSeconds(1), readTimeout))
+                .build();
+        return new TestClient(web, new RequestCoalescer(Duration.ofSeconds(5), new SimpleMeterRegistry()), null);
+    }
+
+    private void answerAfter(Duration delay) {
+        server.onRequest((request, exchange) -> {
+            try {
+                Thread.sleep(delay.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            StubServer.respond(exchange, 200, "{}");
+        });
+    }
+
+    @Test
+    void requestShouldBeForwarded() {
+        Assertions.assertEquals(HttpStatus.OK,
+                client(server.url(), Duration.ofSeconds(5)).read("/items/1", 1L).block().getStatusCode());
+        Assertions.assertEquals("/items/1", server.requests().get(0).getUri());
+    }
+
+    @Test
+    void slowServerShouldFailWithTimeout() {
+        answerAfter(Duration.ofSeconds(2));
+        TestClient client = client(server.url(), Duration.ofMillis(200));
+
+        Assertions.assertThrows(ServerTimeoutException.class, () -> client.read("/items/1", 1L).block());
+    }
+
+    @Test
+    void refusedConnectionShouldFailWithUnavailable() throws Exception {
+        String url;
+        try (StubServer stopped = new StubServer()) {
+            url = stopped.url();
+        }
+        TestClient client = client(url, Duration.ofSeconds(5));
+
+        Assertions.assertThrows(ServerUnavailableException.class, () -> client.read("/items/1", 1L).block());
+    }
+
+    @Test
+    void exhaustedPoolShouldFailWithUnavailable() {
+        answerAfter(Duration.ofSeconds(2));
+        TestClient client = client(server.url(), Duration.ofSeconds(5));
+        // the only pooled connection stays busy
+        client.read("/items/1", 1L).subscribe();
+
+        Assertions.assertThrows(ServerUnavailableException.class, () -> client.read("/items/2", 1L).block());
+    }
+
+    @Test
+    void fullPendingQueueShouldFailAtOnce() {
+        connectionProvider.dispose();
+        connectionProvider = provider(Duration.ofSeconds(5));
+        answerAfter(Duration.ofSeconds(2));
+        TestClient client = client(server.url(), Duration.ofSeconds(5));
+        // one call holds the only pooled connection, the next one takes the only pending slot
+        client.read("/items/1", 1L).subscribe();
+        client.read("/items/2", 1L).subscribe();
+
+        long start = System.nanoTime();
+        Assertions.assertThrows(ServerUnavailableException.class, () -> client.read("/items/3", 1L).block());
+        Assertions.assertTrue(System.nanoTime() - start < Duration.ofSeconds(1).toNanos());
+    }
+}
@@ -0,0 +1,96 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import ru.practicum.shareit.exception.model.ServerTimeoutException;
+import ru.practicum.shareit.exception.model.ServerUnavailableException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class RequestCoalescerTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final RequestCoalescer coalescer = new RequestCoalescer(Duration.ofMillis(200), meterRegistry);
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private static RequestKey key(long userId) {
+        return new RequestKey(HttpMethod.GET, TestClient.class, "/items/1", null, userId);
+    }
+
+    private Mono<ResponseEntity<byte[]>> execute(RequestKey key, Mono<ResponseEntity<byte[]>> upstream) {
+        return coalescer.execute(key, () -> {
+            calls.incrementAndGet();
+            return upstream;
+        });
+    }
+
+    @Test
+    void identicalRequestsInFlightShouldShareOneCall() {
+        Sinks.One<ResponseEntity<byte[]>> answer = Sinks.one();
+        CompletableFuture<ResponseEntity<byte[]>> leader = execute(key(1), answer.asMono()).toFuture();
+        CompletableFuture<ResponseEntity<byte[]>> follower = execute(key(1), answer.asMono()).toFuture();
+
+        ResponseEntity<byte[]> response = ResponseEntity.ok("{}".getBytes());
+        answer.tryEmitValue(response);
+
+        Assertions.assertSame(response, leader.join());
+        Assertions.assertSame(response, follower.join());
+        Assertions.assertEquals(1, calls.get());
+        Assertions.assertEquals(1, meterRegistry.get("gateway.coalescing.requests").tag("role", "leader")
+                .counter().count());
+        Assertions.assertEquals(1, meterRegistry.get("gateway.coalescing.requests").tag("role", "follower")
+                .counter().count());
+    }
+
+    @Test
+    void requestsOfDifferentUsersShouldNotBeShared() {
+        Sinks.One<ResponseEntity<byte[]>> answer = Sinks.one();
+        execute(key(1), answer.asMono()).subscribe();
+        execute(key(2), answer.asMono()).subscribe();
+
+        Assertions.assertEquals(2, calls.get());
+    }
+
+    @Test
+    void finishedRequestShouldNotBeShared() {
+        execute(key(1), Mono.just(ResponseEntity.ok(new byte[0]))).block();
+        execute(key(1), Mono.just(ResponseEntity.ok(new byte[0]))).block();
+
+        Assertions.assertEquals(2, calls.get());
+        Assertions.assertEquals(0, meterRegistry.get("gateway.coalescing.in.flight").gauge().value());
+    }
+
+    @Test
+    void followerShouldGiveUpAfterMaxWait() {
+        execute(key(1), Mono.never()).subscribe();
+
+        Assertions.assertThrows(ServerTimeoutException.class, () -> execute(key(1), Mono.never()).block());
+        Assertions.assertEquals(1, calls.get());
+        Assertions.assertEquals(1, meterRegistry.get("gateway.coalescing.wait.timeouts").counter().count());
+    }
+
+    @Test
+    void failedRequestShouldFailWaitersAndNotBeShared() {
+        Sinks.One<ResponseEntity<byte[]>> answer = Sinks.one();
+        CompletableFuture<ResponseEntity<byte[]>> leader = execute(key(1), answer.asMono()).toFuture();
+        CompletableFuture<ResponseEntity<byte[]>> follower = execute(key(1), answer.asMono()).toFuture();
+
+        answer.tryEmitError(new ServerUnavailableException("shareit-server is unavailable"));
+
+        Assertions.assertThrows(CompletionException.class, leader::join);
+        Assertions.assertThrows(CompletionException.class, follower::join);
+        execute(key(1), Mono.just(ResponseEntity.ok(new byte[0]))).block();
+        Assertions.assertEquals(2, calls.get());
+    }
+}
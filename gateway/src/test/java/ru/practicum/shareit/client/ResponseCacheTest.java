@@ -0,0 +1,173 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+class ResponseCacheTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final List<ClientRequest> requests = new CopyOnWriteArrayList<>();
+
+    private volatile int version = 1;
+
+    private volatile boolean withETag = true;
+
+    private volatile Mono<Void> readGate = Mono.empty();
+
+    /**
+     * Answers GETs with the current version and its ETag, or 304 when the caller already has it.
+     */
+    private Mono<ClientResponse> exchange(ClientRequest request) {
+        requests.add(request);
+        if (request.method() != HttpMethod.GET) {
+            version++;
+            return Mono.just(ClientResponse.create(HttpStatus.OK).build());
+        }
+        String etag = "\"v" + version + "\"";
+        String body = "{\"version\":" + version + "}";
+        return readGate.then(Mono.fromSupplier(() -> {
+            if (withETag && etag.equals(request.headers().getFirst(HttpHeaders.IF_NONE_MATCH))) {
+                return ClientResponse.create(HttpStatus.NOT_MODIFIED).header(HttpHeaders.ETAG, etag).build();
+            }
+            ClientResponse.Builder response = ClientResponse.create(HttpStatus.OK)
+                    .header(HttpHeaders.CONTENT_TYPE, "application/json")
+                    .body(body);
+            return withETag ? response.header(HttpHeaders.ETAG, etag).build() : response.build();
+        }));
+    }
+
+    private TestClient client(Duration freshFor) {
+        ResponseCache cache = new ResponseCache(freshFor, Duration.ofMinutes(1), 100, meterRegistry);
+        return new TestClient(WebClient.builder().exchangeFunction(this::exchange).build(),
+                new RequestCoalescer(Duration.ofSeconds(5), meterRegistry), cache);
+    }
+
+    private static String body(ResponseEntity<byte[]> response) {
+        return new String(response.getBody(), StandardCharsets.UTF_8);
+    }
+
+    private double revalidations(String result) {
+        return meterRegistry.get("gateway.cache.revalidations").tag("result", result).counter().count();
+    }
+
+    @Test
+    void freshResponseShouldBeServedWithoutServer() {
+        TestClient client = client(Duration.ofMinutes(1));
+
+        client.readCached("/items/1", 1L).block();
+        ResponseEntity<byte[]> response = client.readCached("/items/1", 1L).block();
+
+        Assertions.assertEquals(1, requests.size());
+        Assertions.assertEquals("{\"version\":1}", body(response));
+        Assertions.assertEquals("\"v1\"", response.getHeaders().getETag());
+    }
+
+    @Test
+    void staleResponseShouldBeRevalidatedAndServedOnNotModified() {
+        TestClient client = client(Duration.ZERO);
+
+        client.readCached("/items/1", 1L).block();
+        ResponseEntity<byte[]> response = client.readCached("/items/1", 1L).block();
+
+        Assertions.assertEquals(2, requests.size());
+        Assertions.assertEquals("\"v1\"", requests.get(1).headers().getFirst(HttpHeaders.IF_NONE_MATCH));
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertEquals("{\"version\":1}", body(response));
+        Assertions.assertEquals(1, revalidations("not_modified"));
+    }
+
+    @Test
+    void changedResponseShouldReplaceEntry() {
+        TestClient client = client(Duration.ZERO);
+
+        client.readCached("/items/1", 1L).block();
+        version = 2;
+        ResponseEntity<byte[]> changed = client.readCached("/items/1", 1L).block();
+        client.readCached("/items/1", 1L).block();
+
+        Assertions.assertEquals("{\"version\":2}", body(changed));
+        Assertions.assertEquals("\"v2\"", requests.get(2).headers().getFirst(HttpHeaders.IF_NONE_MATCH));
+        Assertions.assertEquals(1, revalidations("modified"));
+        Assertions.assertEquals(1, revalidations("not_modified"));
+    }
+
+    @Test
+    void responseWithoutValidatorShouldNotBeCached() {
+        withETag = false;
+        TestClient client = client(Duration.ofMinutes(1));
+
+        client.readCached("/items/1", 1L).block();
+        client.readCached("/items/1", 1L).block();
+
+        Assertions.assertEquals(2, requests.size());
+        Assertions.assertNull(requests.get(1).headers().getFirst(HttpHeaders.IF_NONE_MATCH));
+    }
+
+    @Test
+    void usersShouldNotShareResponses() {
+        TestClient client = client(Duration.ofMinutes(1));
+
+        client.readCached("/items/1", 1L).block();
+        client.readCached("/items/1", 2L).block();
+
+        Assertions.assertEquals(2, requests.size());
+    }
+
+    @Test
+    void writeShouldEvictCachedResponse() {
+        TestClient client = client(Duration.ofMinutes(1));
+
+        client.readCached("/items/1", 1L).block();
+        client.writeEvicting("/items/1", 2L, "{}", "/items/1").block();
+        ResponseEntity<byte[]> response = client.readCached("/items/1", 1L).block();
+
+        Assertions.assertEquals(3, requests.size());
+        Assertions.assertNull(requests.get(2).headers().getFirst(HttpHeaders.IF_NONE_MATCH));
+        Assertions.assertEquals("{\"version\":2}", body(response));
+    }
+
+    @Test
+    void writeShouldKeepOtherResponses() {
+        TestClient client = client(Duration.ofMinutes(1));
+
+        client.readCached("/items/2", 1L).block();
+        client.writeEvicting("/items/1", 1L, "{}", "/items/1").block();
+        client.readCached("/items/2", 1L).block();
+
+        Assertions.assertEquals(2, requests.size());
+    }
+
+    @Test
+    void readInFlightDuringWriteShouldNotBeStored() {
+        TestClient client = client(Duration.ofMinutes(1));
+        Sinks.Empty<Void> answer = Sinks.empty();
+        readGate = answer.asMono();
+        Mono<ResponseEntity<byte[]>> read = client.readCached("/items/1", 1L).cache();
+        read.subscribe();
+
+        client.writeEvicting("/items/1", 1L, "{}", "/items/1").block();
+        readGate = Mono.empty();
+        answer.tryEmitEmpty();
+        read.block();
+        client.readCached("/items/1", 1L).block();
+
+        Assertions.assertEquals(3, requests.size());
+    }
+}
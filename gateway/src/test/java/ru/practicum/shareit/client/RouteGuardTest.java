@@ -0,0 +1,157 @@
+package ru.practicum.shareit.client;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.exception.model.ServerOverloadedException;
+import ru.practicum.shareit.exception.model.ServerTimeoutException;
+import ru.practicum.shareit.exception.model.ServerUnavailableException;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class RouteGuardTest {
+
+    private final CircuitBreakerRegistry circuitBreakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+            .slidingWindowSize(4)
+            .minimumNumberOfCalls(4)
+            .failureRateThreshold(50)
+            .waitDurationInOpenState(Duration.ofMillis(100))
+            .permittedNumberOfCallsInHalfOpenState(1)
+            .build());
+
+    private final ExchangeFilterFunction guard = new RouteGuard(circuitBreakers,
+            BulkheadRegistry.of(BulkheadConfig.custom().maxConcurrentCalls(2).maxWaitDuration(Duration.ZERO).build()),
+            TimeLimiterRegistry.of(TimeLimiterConfig.custom().timeoutDuration(Duration.ofMillis(200)).build()),
+            Duration.ofSeconds(2))
+            .filter("items");
+
+    private final ClientRequest request = ClientRequest.create(HttpMethod.GET,
+            URI.create(ServerEndpoints.BASE_URL + "/items/1")).build();
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    /**
+     * Like a real exchange, the call is only made on subscription.
+     */
+    private ExchangeFunction answer(HttpStatus status) {
+        return request -> Mono.fromSupplier(() -> {
+            calls.incrementAndGet();
+            return ClientResponse.create(status).build();
+        });
+    }
+
+    private ExchangeFunction hang() {
+        return request -> Mono.defer(() -> {
+            calls.incrementAndGet();
+            return Mono.never();
+        });
+    }
+
+    private HttpStatus send(ExchangeFunction upstream) {
+        return guard.filter(request, upstream).block().statusCode();
+    }
+
+    @Test
+    void failingRouteShouldOpenCircuitAndFailFast() {
+        for (int i = 0; i < 4; i++) {
+            // the caller still gets the server's answer
+            Assertions.assertEquals(HttpStatus.SERVICE_UNAVAILABLE, send(answer(HttpStatus.SERVICE_UNAVAILABLE)));
+        }
+
+        Assertions.assertThrows(ServerUnavailableException.class, () -> send(answer(HttpStatus.OK)));
+        Assertions.assertEquals(4, calls.get());
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, circuitBreakers.circuitBreaker("items").getState());
+    }
+
+    @Test
+    void openCircuitShouldCloseAfterSuccessfulProbe() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            send(answer(HttpStatus.BAD_GATEWAY));
+        }
+
+        Thread.sleep(150);
+
+        Assertions.assertEquals(HttpStatus.OK, send(answer(HttpStatus.OK)));
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, circuitBreakers.circuitBreaker("items").getState());
+    }
+
+    @Test
+    void serverErrorsShouldNotOpenCircuit() {
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, send(answer(HttpStatus.INTERNAL_SERVER_ERROR)));
+        }
+
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, circuitBreakers.circuitBreaker("items").getState());
+    }
+
+    @Test
+    void openCircuitShouldNotAffectOtherRoutes() {
+        for (int i = 0; i < 4; i++) {
+            send(answer(HttpStatus.GATEWAY_TIMEOUT));
+        }
+
+        Assertions.assertEquals(HttpStatus.OK, guard.filter(request, answer(HttpStatus.OK))
+                .contextWrite(RouteGuard.route("bookings"))
+                .block()
+                .statusCode());
+    }
+
+    @Test
+    void fullBulkheadShouldShedWithRetryAfter() {
+        for (int i = 0; i < 2; i++) {
+            guard.filter(request, hang()).subscribe();
+        }
+
+        ServerOverloadedException e = Assertions.assertThrows(ServerOverloadedException.class,
+                () -> send(answer(HttpStatus.OK)));
+
+        Assertions.assertEquals(Duration.ofSeconds(2), e.getRetryAfter());
+        Assertions.assertEquals(2, calls.get());
+    }
+
+    @Test
+    void busyRouteShouldNotAffectOtherRoutes() {
+        for (int i = 0; i < 2; i++) {
+            guard.filter(request, hang()).contextWrite(RouteGuard.route("search")).subscribe();
+        }
+
+        Assertions.assertEquals(HttpStatus.OK, send(answer(HttpStatus.OK)));
+    }
+
+    @Test
+    void slowCallShouldTimeOutAndCountAsFailure() {
+        Assertions.assertThrows(ServerTimeoutException.class, () -> send(hang()));
+
+        Assertions.assertEquals(1, circuitBreakers.circuitBreaker("items").getMetrics().getNumberOfFailedCalls());
+    }
+
+    @Test
+    void timedOutCallShouldBeDroppedByConcurrencyLimiter() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ExchangeFilterFunction limiter = new ConcurrencyLimiter(20, 4, 200, Duration.ofMinutes(1), 0.9, 0.75,
+                Duration.ofSeconds(1), meterRegistry).filter();
+
+        Assertions.assertThrows(ServerTimeoutException.class,
+                () -> guard.filter(request, next -> limiter.filter(next, hang())).block());
+
+        Assertions.assertEquals(18, meterRegistry.get("gateway.limit.current").gauge().value(), 0.001);
+        Assertions.assertEquals(0, meterRegistry.get("gateway.limit.in.flight").gauge().value());
+    }
+}
@@ -0,0 +1,242 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.StubServer;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+class ServerEndpointsTest {
+
+    private static final String FIRST = "http://server-1:9090";
+
+    private static final String SECOND = "http://server-2:9090";
+
+    private static final String THIRD = "http://server-3:9090";
+
+    private static final String FOURTH = "http://server-4:9090";
+
+    private final Map<String, HttpStatus> answers = new ConcurrentHashMap<>();
+
+    private final List<ServerEndpoints> created = new ArrayList<>();
+
+    private final ExchangeFunction upstream = request -> Mono.just(ClientResponse.create(
+            answers.getOrDefault(origin(request.url()), HttpStatus.OK)).build());
+
+    @AfterEach
+    void tearDown() {
+        created.forEach(ServerEndpoints::stopHealthChecks);
+    }
+
+    private ServerEndpoints endpoints(List<String> urls, Duration healthInterval, boolean itemAffinity) {
+        ServerEndpoints endpoints = new ServerEndpoints(urls, "/actuator/health", healthInterval, 3,
+                Duration.ofMinutes(1), itemAffinity, 100, Duration.ofMinutes(1), new ReactorClientHttpConnector(),
+                new SimpleMeterRegistry());
+        created.add(endpoints);
+        return endpoints;
+    }
+
+    private static String origin(URI uri) {
+        return uri.getScheme() + "://" + uri.getHost() + ":" + uri.getPort();
+    }
+
+    private static ClientRequest request(HttpMethod method, String path, String userId) {
+        return ClientRequest.create(method, URI.create(ServerEndpoints.BASE_URL + path))
+                .header("X-Sharer-User-Id", userId)
+                .build();
+    }
+
+    /**
+     * Sends the request and returns the instance it went to.
+     */
+    private String send(ExchangeFilterFunction loadBalancer, ClientRequest request) {
+        List<String> routed = new ArrayList<>();
+        loadBalancer.filter(request, routedRequest -> {
+            routed.add(origin(routedRequest.url()));
+            return upstream.exchange(routedRequest);
+        }).block();
+        return routed.get(0);
+    }
+
+    /**
+     * Sends a request about the item and returns the instance it went to.
+     */
+    private String send(ExchangeFilterFunction loadBalancer, long itemId) {
+        List<String> routed = new ArrayList<>();
+        loadBalancer.filter(request(HttpMethod.GET, "/items/" + itemId, "1"), routedRequest -> {
+                    routed.add(origin(routedRequest.url()));
+                    return upstream.exchange(routedRequest);
+                })
+                .contextWrite(ServerEndpoints.itemAffinity(itemId))
+                .block();
+        return routed.get(0);
+    }
+
+    @Test
+    void requestShouldKeepPathAndQuery() {
+        ExchangeFilterFunction loadBalancer = endpoints(List.of(FIRST), Duration.ofMinutes(1), false).loadBalancer();
+        List<URI> routed = new ArrayList<>();
+
+        loadBalancer.filter(request(HttpMethod.GET, "/items/search?text=%D0%B4", "1"), request -> {
+            routed.add(request.url());
+            return upstream.exchange(request);
+        }).block();
+
+        Assertions.assertEquals(URI.create(FIRST + "/items/search?text=%D0%B4"), routed.get(0));
+    }
+
+    @Test
+    void requestShouldGoToLessLoadedInstance() {
+        ExchangeFilterFunction loadBalancer = endpoints(List.of(FIRST, SECOND), Duration.ofMinutes(1), false)
+                .loadBalancer();
+        // a request that never completes keeps one instance busy
+        List<String> busy = new ArrayList<>();
+        loadBalancer.filter(request(HttpMethod.GET, "/items/1", "1"), request -> {
+            busy.add(origin(request.url()));
+            return Mono.never();
+        }).subscribe();
+        String idle = busy.get(0).equals(FIRST) ? SECOND : FIRST;
+
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertEquals(idle, send(loadBalancer, request(HttpMethod.GET, "/items/2", "2")));
+        }
+    }
+
+    @Test
+    void failingInstanceShouldBeEjected() {
+        ExchangeFilterFunction loadBalancer = endpoints(List.of(FIRST, SECOND), Duration.ofMinutes(1), false)
+                .loadBalancer();
+        answers.put(FIRST, HttpStatus.SERVICE_UNAVAILABLE);
+
+        int failures = 0;
+        while (failures < 3) {
+            if (send(loadBalancer, request(HttpMethod.GET, "/items/1", "1")).equals(FIRST)) {
+                failures++;
+            }
+        }
+
+        for (int i = 0; i < 20; i++) {
+            Assertions.assertEquals(SECOND, send(loadBalancer, request(HttpMethod.GET, "/items/1", "1")));
+        }
+    }
+
+    @Test
+    void clientErrorsShouldNotEjectInstance() {
+        ExchangeFilterFunction loadBalancer = endpoints(List.of(FIRST, SECOND), Duration.ofMinutes(1), false)
+                .loadBalancer();
+        answers.put(FIRST, HttpStatus.INTERNAL_SERVER_ERROR);
+
+        boolean firstUsed = false;
+        for (int i = 0; i < 50; i++) {
+            firstUsed |= send(loadBalancer, request(HttpMethod.GET, "/items/1", "1")).equals(FIRST);
+        }
+
+        Assertions.assertTrue(firstUsed);
+    }
+
+    @Test
+    void writingUserShouldStayOnSameInstance() {
+        ExchangeFilterFunction loadBalancer = endpoints(List.of(FIRST, SECOND), Duration.ofMinutes(1), false)
+                .loadBalancer();
+
+        String written = send(loadBalancer, request(HttpMethod.POST, "/bookings", "1"));
+
+        for (int i = 0; i < 20; i++) {
+            Assertions.assertEquals(written, send(loadBalancer, request(HttpMethod.GET, "/bookings", "1")));
+        }
+    }
+
+    @Test
+    void failedHealthCheckShouldTakeInstanceOutUntilItPasses() throws Exception {
+        try (StubServer first = new StubServer(); StubServer second = new StubServer()) {
+            first.onRequest((request, exchange) -> StubServer.respond(exchange, 503, "{\"status\":\"DOWN\"}"));
+            ServerEndpoints endpoints = endpoints(List.of(first.url(), second.url()), Duration.ofMillis(50), false);
+            endpoints.startHealthChecks();
+            ExchangeFilterFunction loadBalancer = endpoints.loadBalancer();
+            while (first.requests().isEmpty()) {
+                Thread.sleep(10);
+            }
+            Thread.sleep(100);
+
+            for (int i = 0; i < 20; i++) {
+                Assertions.assertEquals(second.url(), send(loadBalancer, request(HttpMethod.GET, "/items/1", "1")));
+            }
+
+            first.onRequest((request, exchange) -> StubServer.respond(exchange, 200, "{\"status\":\"UP\"}"));
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            boolean readmitted = false;
+            while (!readmitted && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+                readmitted = send(loadBalancer, request(HttpMethod.GET, "/items/1", "1")).equals(first.url());
+            }
+            Assertions.assertTrue(readmitted);
+            Assertions.assertEquals("/actuator/health", first.requests().get(0).getUri());
+        }
+    }
+
+    @Test
+    void itemShouldAlwaysGoToItsOwner() {
+        ExchangeFilterFunction loadBalancer = endpoints(List.of(FIRST, SECOND, THIRD), Duration.ofMinutes(1), true)
+                .loadBalancer();
+
+        for (long itemId = 1; itemId <= 100; itemId++) {
+            String owner = send(loadBalancer, itemId);
+            for (int i = 0; i < 5; i++) {
+                Assertions.assertEquals(owner, send(loadBalancer, itemId));
+            }
+        }
+    }
+
+    @Test
+    void addedInstanceShouldTakeOverAboutItsShareOfItems() {
+        ExchangeFilterFunction before = endpoints(List.of(FIRST, SECOND, THIRD), Duration.ofMinutes(1), true)
+                .loadBalancer();
+        ExchangeFilterFunction after = endpoints(List.of(FIRST, SECOND, THIRD, FOURTH), Duration.ofMinutes(1), true)
+                .loadBalancer();
+        int items = 2000;
+
+        int moved = 0;
+        for (long itemId = 1; itemId <= items; itemId++) {
+            String owner = send(after, itemId);
+            if (!owner.equals(send(before, itemId))) {
+                moved++;
+                // items only move to the new instance, never between the old ones
+                Assertions.assertEquals(FOURTH, owner);
+            }
+        }
+
+        double share = (double) moved / items;
+        Assertions.assertTrue(share > 0.15 && share < 0.35, "moved " + share);
+    }
+
+    @Test
+    void itemOfEjectedOwnerShouldBeBalanced() {
+        ExchangeFilterFunction loadBalancer = endpoints(List.of(FIRST, SECOND, THIRD), Duration.ofMinutes(1), true)
+                .loadBalancer();
+        long itemId = 1;
+        String owner = send(loadBalancer, itemId);
+        answers.put(owner, HttpStatus.BAD_GATEWAY);
+        for (int i = 0; i < 3; i++) {
+            send(loadBalancer, itemId);
+        }
+
+        for (int i = 0; i < 20; i++) {
+            Assertions.assertNotEquals(owner, send(loadBalancer, itemId));
+        }
+    }
+}
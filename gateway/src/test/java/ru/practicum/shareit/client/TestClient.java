@@ -0,0 +1,32 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+/**
+ * Exposes the {@link BaseClient} calls to the tests.
+ */
+class TestClient extends BaseClient {
+
+    TestClient(WebClient web, RequestCoalescer requestCoalescer, @Nullable ResponseCache responseCache) {
+        super(web, requestCoalescer, responseCache);
+    }
+
+    Mono<ResponseEntity<byte[]>> read(String path, @Nullable Long userId) {
+        return get(path, userId, null);
+    }
+
+    Mono<ResponseEntity<byte[]>> readCached(String path, @Nullable Long userId) {
+        return getCached(path, userId, null);
+    }
+
+    Mono<ResponseEntity<byte[]>> write(String path, long userId, Object body) {
+        return post(path, userId, body);
+    }
+
+    Mono<ResponseEntity<byte[]>> writeEvicting(String path, long userId, Object body, String cachedPath) {
+        return evicting(post(path, userId, body), TestClient.class, cachedPath::equals, null);
+    }
+}
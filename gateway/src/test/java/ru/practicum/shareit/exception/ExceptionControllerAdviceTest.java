@@ -0,0 +1,63 @@
+package ru.practicum.shareit.exception;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.exception.model.ServerOverloadedException;
+import ru.practicum.shareit.exception.model.ServerTimeoutException;
+import ru.practicum.shareit.exception.model.ServerUnavailableException;
+
+import java.time.Duration;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class ExceptionControllerAdviceTest {
+
+    private final MockMvc mvc = MockMvcBuilders.standaloneSetup(new FailingController())
+            .setControllerAdvice(new ExceptionControllerAdvice())
+            .build();
+
+    @Test
+    void overloadedServerShouldReturn503WithRetryAfter() throws Exception {
+        mvc.perform(get("/overloaded"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(jsonPath("$.error").value("shareit-server is overloaded"));
+    }
+
+    @Test
+    void unavailableServerShouldReturn503() throws Exception {
+        mvc.perform(get("/unavailable"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().doesNotExist("Retry-After"));
+    }
+
+    @Test
+    void slowServerShouldReturn504() throws Exception {
+        mvc.perform(get("/timeout"))
+                .andExpect(status().isGatewayTimeout());
+    }
+
+    @RestController
+    static class FailingController {
+
+        @GetMapping("/overloaded")
+        void overloaded() {
+            // a fraction of a second is rounded up
+            throw new ServerOverloadedException("shareit-server is overloaded", Duration.ofMillis(1500));
+        }
+
+        @GetMapping("/unavailable")
+        void unavailable() {
+            throw new ServerUnavailableException("shareit-server is unavailable");
+        }
+
+        @GetMapping("/timeout")
+        void timeout() {
+            throw new ServerTimeoutException("shareit-server did not respond in time");
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.StubServer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ItemControllerTest {
+
+    private static StubServer server;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @DynamicPropertySource
+    static void serverProperties(DynamicPropertyRegistry registry) throws IOException {
+        server = new StubServer();
+        registry.add("shareit-server.url", server::url);
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        server.requests().clear();
+    }
+
+    @Test
+    void saveItemShouldForwardRequestAndReturnServerResponse() throws Exception {
+        String sent = "{\"name\": \"Дрель\", \"description\": \"Простая дрель\", \"available\": true}";
+        String answer = "{\"id\":1,\"name\":\"Дрель\",\"description\":\"Простая дрель\",\"available\":true}";
+        server.onRequest((request, exchange) -> StubServer.respond(exchange, 201, answer));
+
+        MvcResult result = mvc.perform(post("/items")
+                        .content(sent.getBytes(StandardCharsets.UTF_8))
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isCreated())
+                .andExpect(content().bytes(answer.getBytes(StandardCharsets.UTF_8)));
+        Assertions.assertEquals("POST", server.requests().get(0).getMethod());
+        Assertions.assertEquals("/items", server.requests().get(0).getUri());
+        Assertions.assertEquals(sent, server.requests().get(0).getBodyAsString());
+    }
+
+    @Test
+    void serverErrorShouldBePassedThrough() throws Exception {
+        String answer = "{\"error\":\"Item not found\"}";
+        server.onRequest((request, exchange) -> StubServer.respond(exchange, 404, answer));
+
+        MvcResult result = mvc.perform(get("/items/404").header("X-Sharer-User-Id", 1))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound())
+                .andExpect(content().string(answer));
+    }
+
+    @Test
+    void saveItemWithBlankNameShouldFailWithoutCallingServer() throws Exception {
+        mvc.perform(post("/items")
+                        .content("{\"name\": \" \", \"description\": \"Простая дрель\", \"available\": true}")
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$[0].error").value("name: Name can't be blank"));
+
+        Assertions.assertTrue(server.requests().isEmpty());
+    }
+
+    @Test
+    void searchWithNegativeFromShouldFailWithoutCallingServer() throws Exception {
+        mvc.perform(get("/items/search").param("text", "дрель").param("from", "-1"))
+                .andExpect(status().isBadRequest());
+
+        Assertions.assertTrue(server.requests().isEmpty());
+    }
+
+    @Test
+    void saveItemWithoutUserShouldFailWithoutCallingServer() throws Exception {
+        mvc.perform(post("/items")
+                        .content("{\"name\": \"Дрель\", \"description\": \"Простая дрель\", \"available\": true}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        Assertions.assertTrue(server.requests().isEmpty());
+    }
+}
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+class LocalRateLimitStoreTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private final LocalRateLimitStore store = new LocalRateLimitStore(new RateLimitProperties(), now::get);
+
+    static RateLimitProperties.Limit limit(int capacity, double perSecond) {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit();
+        limit.setCapacity(capacity);
+        limit.setPerSecond(perSecond);
+        return limit;
+    }
+
+    private void advance(Duration duration) {
+        now.addAndGet(duration.toNanos());
+    }
+
+    @Test
+    void idleClientShouldGetFullBurst() {
+        RateLimitProperties.Limit limit = limit(3, 1);
+
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertEquals(0, store.tryAcquire("user:1", limit));
+        }
+        Assertions.assertEquals(Duration.ofSeconds(1).toNanos(), store.tryAcquire("user:1", limit));
+    }
+
+    @Test
+    void rejectedRequestShouldNotTakeToken() {
+        RateLimitProperties.Limit limit = limit(1, 1);
+        store.tryAcquire("user:1", limit);
+
+        store.tryAcquire("user:1", limit);
+        store.tryAcquire("user:1", limit);
+        advance(Duration.ofSeconds(1));
+
+        Assertions.assertEquals(0, store.tryAcquire("user:1", limit));
+    }
+
+    @Test
+    void bucketShouldRefillAtRate() {
+        RateLimitProperties.Limit limit = limit(3, 2);
+        for (int i = 0; i < 3; i++) {
+            store.tryAcquire("user:1", limit);
+        }
+
+        advance(Duration.ofMillis(250));
+        Assertions.assertEquals(Duration.ofMillis(250).toNanos(), store.tryAcquire("user:1", limit));
+        advance(Duration.ofMillis(250));
+        Assertions.assertEquals(0, store.tryAcquire("user:1", limit));
+        Assertions.assertEquals(Duration.ofMillis(500).toNanos(), store.tryAcquire("user:1", limit));
+
+        advance(Duration.ofMillis(1500));
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertEquals(0, store.tryAcquire("user:1", limit));
+        }
+        Assertions.assertTrue(store.tryAcquire("user:1", limit) > 0);
+    }
+
+    @Test
+    void bucketsShouldBeSeparatePerKey() {
+        RateLimitProperties.Limit limit = limit(1, 1);
+        store.tryAcquire("SEARCH:user:1", limit);
+
+        Assertions.assertEquals(0, store.tryAcquire("SEARCH:user:2", limit));
+        Assertions.assertEquals(0, store.tryAcquire("LIST:user:1", limit));
+        Assertions.assertTrue(store.tryAcquire("SEARCH:user:1", limit) > 0);
+    }
+}
@@ -0,0 +1,103 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.exception.ExceptionControllerAdvice;
+
+import java.util.Map;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class RateLimitInterceptorTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setLimits(Map.of(EndpointClass.BOOKING, LocalRateLimitStoreTest.limit(2, 0.5)));
+        // the clock stands still, no token comes back during the test
+        LocalRateLimitStore store = new LocalRateLimitStore(properties, () -> 0);
+        mvc = MockMvcBuilders.standaloneSetup(new TestController())
+                .addInterceptors(new RateLimitInterceptor(properties, store, meterRegistry))
+                .setControllerAdvice(new ExceptionControllerAdvice())
+                .build();
+    }
+
+    private static RequestPostProcessor from(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+
+    @Test
+    void userOverLimitShouldGet429WithRetryAfter() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mvc.perform(post("/bookings").header("X-Sharer-User-Id", 1)).andExpect(status().isOk());
+        }
+
+        mvc.perform(post("/bookings").header("X-Sharer-User-Id", 1))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "2"));
+        Assertions.assertEquals(1, meterRegistry.get("gateway.rate-limit.rejections").tag("endpoint", "booking")
+                .counter().count());
+    }
+
+    @Test
+    void usersShouldHaveSeparateBuckets() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mvc.perform(post("/bookings").header("X-Sharer-User-Id", 1));
+        }
+
+        mvc.perform(post("/bookings").header("X-Sharer-User-Id", 2)).andExpect(status().isOk());
+    }
+
+    @Test
+    void requestsWithoutUserShouldBeLimitedPerAddress() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mvc.perform(post("/bookings").with(from("10.0.0.1"))).andExpect(status().isOk());
+        }
+
+        mvc.perform(post("/bookings").with(from("10.0.0.1"))).andExpect(status().isTooManyRequests());
+        mvc.perform(post("/bookings").with(from("10.0.0.2"))).andExpect(status().isOk());
+    }
+
+    @Test
+    void endpointWithoutLimitShouldNotBeLimited() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mvc.perform(post("/bookings").header("X-Sharer-User-Id", 1));
+        }
+
+        for (int i = 0; i < 10; i++) {
+            mvc.perform(get("/bookings/1").header("X-Sharer-User-Id", 1)).andExpect(status().isOk());
+        }
+    }
+
+    @RestController
+    static class TestController {
+
+        @PostMapping("/bookings")
+        void bookItem() {
+        }
+
+        @GetMapping("/bookings/{id}")
+        void getBooking(@PathVariable Integer id) {
+        }
+    }
+}
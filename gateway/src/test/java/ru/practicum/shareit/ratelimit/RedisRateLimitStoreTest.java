@@ -0,0 +1,47 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+
+@ExtendWith(MockitoExtension.class)
+class RedisRateLimitStoreTest {
+
+    @Mock
+    private StringRedisTemplate redis;
+
+    @Test
+    void tryAcquireShouldRunScriptWithMicroseconds() {
+        Mockito
+                .when(redis.execute(any(RedisScript.class), anyList(), any(), any()))
+                .thenReturn(250_000L);
+
+        long wait = new RedisRateLimitStore(redis).tryAcquire("SEARCH:user:1", LocalRateLimitStoreTest.limit(10, 2));
+
+        Assertions.assertEquals(Duration.ofMillis(250).toNanos(), wait);
+        Mockito.verify(redis).execute(any(RedisScript.class), Mockito.eq(List.of("shareit:rate-limit:SEARCH:user:1")),
+                Mockito.eq("500000"), Mockito.eq("5000000"));
+    }
+
+    @Test
+    void tryAcquireWithRedisDownShouldLetRequestThrough() {
+        Mockito
+                .when(redis.execute(any(RedisScript.class), anyList(), any(), any()))
+                .thenThrow(new RedisConnectionFailureException("Connection refused"));
+
+        Assertions.assertEquals(0, new RedisRateLimitStore(redis).tryAcquire("SEARCH:user:1",
+                LocalRateLimitStoreTest.limit(10, 2)));
+    }
+}
@@ -7,7 +7,9 @@ import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.request.BookingCreateRequest;
 import ru.practicum.shareit.booking.dto.response.BookingResponse;
 import ru.practicum.shareit.booking.enums.State;
+import ru.practicum.shareit.pagination.CursorPage;
 
+import javax.servlet.http.HttpServletResponse;
 import java.util.List;
 
 @RestController
@@ -59,11 +61,20 @@ public class BookingController {
             @RequestParam(defaultValue = "ALL", value = "state") String stateStr,
             @RequestHeader(name = "X-Sharer-User-Id", required = false) Integer userId,
             @RequestParam(value = "from", defaultValue = "0") Integer from,
-            @RequestParam(name = "size", defaultValue = "20") Integer size
+            @RequestParam(name = "size", defaultValue = "20") Integer size,
+            @RequestParam(name = "after", required = false) String after,
+            HttpServletResponse response
     ) {
         log.info("Пришел запрос GET /bookings?state={} userId={}", stateStr, userId);
         State state = State.valueOf(stateStr.toUpperCase());
-        List<BookingResponse> bookings = bookingService.getUserBookings(userId, state, from, size);
+        List<BookingResponse> bookings;
+        if (after != null) {
+            CursorPage<BookingResponse> page = bookingService.getUserBookingsAfter(userId, state, after, size);
+            page.writeNextCursor(response);
+            bookings = page.getContent();
+        } else {
+            bookings = bookingService.getUserBookings(userId, state, from, size);
+        }
         log.info("Отправлен ответ GET /bookings?state={} userId={}: {}", state, userId, bookings);
         return bookings;
     }
@@ -74,11 +85,20 @@ public class BookingController {
             @RequestParam(defaultValue = "ALL", value = "state") String stateStr,
             @RequestHeader(name = "X-Sharer-User-Id", required = false) Integer userId,
             @RequestParam(value = "from", defaultValue = "0") Integer from,
-            @RequestParam(name = "size", defaultValue = "20") Integer size
+            @RequestParam(name = "size", defaultValue = "20") Integer size,
+            @RequestParam(name = "after", required = false) String after,
+            HttpServletResponse response
     ) {
         log.info("Пришел запрос GET /bookings/owner?state={} userId={}", stateStr, userId);
         State state = State.valueOf(stateStr.toUpperCase());
-        List<BookingResponse> bookings = bookingService.getUserItemsBookings(userId, state, from, size);
+        List<BookingResponse> bookings;
+        if (after != null) {
+            CursorPage<BookingResponse> page = bookingService.getUserItemsBookingsAfter(userId, state, after, size);
+            page.writeNextCursor(response);
+            bookings = page.getContent();
+        } else {
+            bookings = bookingService.getUserItemsBookings(userId, state, from, size);
+        }
         log.info("Отправлен ответ GET /bookings/owner?state={} userId={}: {}", state, userId, bookings);
         return bookings;
     }
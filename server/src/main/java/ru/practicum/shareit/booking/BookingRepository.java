@@ -5,10 +5,12 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface BookingRepository extends JpaRepository<Booking, Integer>, QuerydslPredicateExecutor<Booking> {
+public interface BookingRepository extends JpaRepository<Booking, Integer>, QuerydslPredicateExecutor<Booking>,
+        BookingRepositoryCustom {
 
     @Query(value = "SELECT b FROM Booking b " +
             "JOIN FETCH b.item " +
@@ -23,10 +25,33 @@ public interface BookingRepository extends JpaRepository<Booking, Integer>, Quer
             "ORDER BY b.start")
     List<Booking> findAllByItem_Id(Integer itemId);
 
+    @Query(value = "SELECT b FROM Booking b " +
+            "JOIN FETCH b.booker " +
+            "WHERE b.item.id IN :itemIds AND " +
+            "b.status = 'APPROVED' AND " +
+            "b.start = (SELECT MAX(lb.start) FROM Booking lb " +
+            "WHERE lb.item.id = b.item.id AND lb.status = 'APPROVED' AND lb.start < :now)")
+    List<Booking> findLastApprovedByItemIds(Collection<Integer> itemIds, LocalDateTime now);
+
+    @Query(value = "SELECT b FROM Booking b " +
+            "JOIN FETCH b.booker " +
+            "WHERE b.item.id IN :itemIds AND " +
+            "b.status = 'APPROVED' AND " +
+            "b.start = (SELECT MIN(nb.start) FROM Booking nb " +
+            "WHERE nb.item.id = b.item.id AND nb.status = 'APPROVED' AND nb.start > :now)")
+    List<Booking> findNextApprovedByItemIds(Collection<Integer> itemIds, LocalDateTime now);
+
     @Query(value = "SELECT COUNT(b) FROM Booking b " +
             "WHERE b.booker.id = :bookerId AND " +
             "b.item.id = :itemId AND " +
             "b.status = 'APPROVED' AND " +
             "b.start < :now")
     Integer countByBookerIdAndItemId(Integer bookerId, Integer itemId, LocalDateTime now);
+
+    @Query(value = "SELECT CASE WHEN COUNT(b) > 0 THEN true ELSE false END FROM Booking b " +
+            "WHERE b.item.id = :itemId AND " +
+            "b.status IN ('WAITING', 'APPROVED') AND " +
+            "b.start < :end AND " +
+            "b.end > :start")
+    boolean existsOverlapping(Integer itemId, LocalDateTime start, LocalDateTime end);
 }
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking;
+
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Predicate;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+public interface BookingRepositoryCustom {
+
+    /**
+     * Same as findAll(predicate, pageable) of the predicate executor, but
+     * fetches one extra row to detect the next page instead of counting.
+     * Item and booker are fetched in the same query, as for findLimited.
+     */
+    Slice<Booking> findSlice(Predicate predicate, Pageable pageable);
+
+    List<Booking> findLimited(Predicate predicate, int limit, OrderSpecifier<?>... orders);
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.booking;
+
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.PathBuilder;
+import com.querydsl.jpa.JPQLQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.repository.support.Querydsl;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+public class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+
+    private final JPAQueryFactory queryFactory;
+
+    private final Querydsl querydsl;
+
+    public BookingRepositoryCustomImpl(EntityManager entityManager) {
+        this.queryFactory = new JPAQueryFactory(entityManager);
+        this.querydsl = new Querydsl(entityManager, new PathBuilder<>(Booking.class, QBooking.booking.getMetadata()));
+    }
+
+    @Override
+    public Slice<Booking> findSlice(Predicate predicate, Pageable pageable) {
+        JPQLQuery<Booking> query = querydsl.applySorting(pageable.getSort(), selectWithItemAndBooker()
+                .where(predicate));
+        if (pageable.isPaged()) {
+            query.offset(pageable.getOffset()).limit(pageable.getPageSize() + 1L);
+        }
+        List<Booking> bookings = query.fetch();
+        boolean hasNext = pageable.isPaged() && bookings.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? bookings.subList(0, pageable.getPageSize()) : bookings, pageable, hasNext);
+    }
+
+    @Override
+    public List<Booking> findLimited(Predicate predicate, int limit, OrderSpecifier<?>... orders) {
+        return selectWithItemAndBooker()
+                .where(predicate)
+                .orderBy(orders)
+                .limit(limit)
+                .fetch();
+    }
+
+    private JPQLQuery<Booking> selectWithItemAndBooker() {
+        QBooking booking = QBooking.booking;
+        return queryFactory.selectFrom(booking)
+                .innerJoin(booking.item).fetchJoin()
+                .innerJoin(booking.booker).fetchJoin();
+    }
+}
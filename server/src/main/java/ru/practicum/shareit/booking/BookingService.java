@@ -7,6 +7,9 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.admission.BookingAdmission;
 import ru.practicum.shareit.booking.dto.request.BookingCreateRequest;
 import ru.practicum.shareit.booking.dto.response.BookingResponse;
 import ru.practicum.shareit.booking.enums.State;
@@ -15,7 +18,10 @@ import ru.practicum.shareit.exception.model.NotAuthorizedException;
 import ru.practicum.shareit.exception.model.NotFoundException;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceValidator;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
@@ -23,6 +29,7 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
+@Transactional(readOnly = true)
 @AllArgsConstructor
 @Slf4j
 public class BookingService {
@@ -31,10 +38,19 @@ public class BookingService {
 
     private final UserRepository userRepository;
 
+    private final UserExistenceValidator userExistenceValidator;
+
     private final ItemRepository itemRepository;
 
+    private final BookingAdmission bookingAdmission;
 
+    // the admission opens the transaction itself, so the item stays locked until the booking is committed
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public BookingResponse bookItem(Integer userId, BookingCreateRequest dto) {
+        return bookingAdmission.admit(dto.getItemId(), () -> createBooking(userId, dto));
+    }
+
+    private BookingResponse createBooking(Integer userId, BookingCreateRequest dto) {
         Item item = itemRepository.findById(dto.getItemId()).orElseThrow(() -> new NotFoundException("Item not found"));
         if (item.getOwner().getId().equals(userId)) {
             throw new NotFoundException("You can't book your item");
@@ -50,8 +66,9 @@ public class BookingService {
         return BookingMapper.toDto(bookingRepository.save(booking));
     }
 
+    @Transactional
     public BookingResponse approveBookingStatus(Integer id, Integer userId, boolean isApproved) {
-        userRepository.findById(userId).orElseThrow(() -> new NotFoundException("User not found"));
+        userExistenceValidator.validate(userId);
         Booking booking = bookingRepository.findByIdWithBookerAndItem(id)
                 .orElseThrow(() -> new NotFoundException("Booking not found"));
         if (!booking.getItem().getOwner().getId().equals(userId)) {
@@ -66,7 +83,7 @@ public class BookingService {
     }
 
     public BookingResponse getBooking(Integer id, Integer userId) {
-        userRepository.findById(userId).orElseThrow(() -> new NotFoundException("User not found"));
+        userExistenceValidator.validate(userId);
         Booking booking = bookingRepository.findByIdWithBookerAndItem(id)
                 .orElseThrow(() -> new NotFoundException("Booking not found"));
 
@@ -78,12 +95,12 @@ public class BookingService {
     }
 
     public List<BookingResponse> getUserBookings(Integer userId, State state, Integer from, Integer size) {
-        userRepository.findById(userId).orElseThrow(() -> new NotFoundException("User not found"));
+        userExistenceValidator.validate(userId);
         BooleanExpression expression = QBooking.booking.booker.id.eq(userId);
         expression = addStateFilterPredicate(expression, state);
 
         Pageable page = PageRequest.of(from / size, size, Sort.by(Sort.Direction.DESC, "start"));
-        List<Booking> bookings = bookingRepository.findAll(expression, page).getContent();
+        List<Booking> bookings = bookingRepository.findSlice(expression, page).getContent();
 
         return bookings.stream()
                 .map(BookingMapper::toDto)
@@ -91,18 +108,45 @@ public class BookingService {
     }
 
     public List<BookingResponse> getUserItemsBookings(Integer userId, State state, Integer from, Integer size) {
-        userRepository.findById(userId).orElseThrow(() -> new NotFoundException("User not found"));
+        userExistenceValidator.validate(userId);
         BooleanExpression expression = QBooking.booking.item.owner.id.eq(userId);
         expression = addStateFilterPredicate(expression, state);
 
         Pageable page = PageRequest.of(from / size, size, Sort.by(Sort.Direction.DESC, "start"));
-        List<Booking> bookings = bookingRepository.findAll(expression, page).getContent();
+        List<Booking> bookings = bookingRepository.findSlice(expression, page).getContent();
 
         return bookings.stream()
                 .map(BookingMapper::toDto)
                 .collect(Collectors.toList());
     }
 
+    public CursorPage<BookingResponse> getUserBookingsAfter(Integer userId, State state, String after, Integer size) {
+        userExistenceValidator.validate(userId);
+        BooleanExpression expression = QBooking.booking.booker.id.eq(userId);
+        return findBookingsAfter(addStateFilterPredicate(expression, state), Cursor.decode(after), size);
+    }
+
+    public CursorPage<BookingResponse> getUserItemsBookingsAfter(Integer userId, State state, String after, Integer size) {
+        userExistenceValidator.validate(userId);
+        BooleanExpression expression = QBooking.booking.item.owner.id.eq(userId);
+        return findBookingsAfter(addStateFilterPredicate(expression, state), Cursor.decode(after), size);
+    }
+
+    private CursorPage<BookingResponse> findBookingsAfter(BooleanExpression expression, Cursor cursor, Integer size) {
+        QBooking booking = QBooking.booking;
+        if (cursor != null) {
+            if (cursor.getTime() == null) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            expression = expression.and(booking.start.lt(cursor.getTime())
+                    .or(booking.start.eq(cursor.getTime()).and(booking.id.lt(cursor.getId()))));
+        }
+        List<Booking> bookings = bookingRepository.findLimited(expression, size + 1,
+                booking.start.desc(), booking.id.desc());
+        return CursorPage.ofEach(bookings, size, last -> Cursor.of(last.getStart(), last.getId()),
+                BookingMapper::toDto);
+    }
+
     private BooleanExpression addStateFilterPredicate(BooleanExpression stateExpression, State state) {
         switch (state) {
             case CURRENT:
@@ -127,17 +171,6 @@ public class BookingService {
     }
 
     private boolean isItemFree(Integer itemId, LocalDateTime start, LocalDateTime end) {
-        BooleanExpression expression = addStateFilterPredicate(QBooking.booking.item.id.eq(itemId), State.FUTURE);
-        expression = expression.and(QBooking.booking.status.ne(Status.REJECTED));
-        Iterable<Booking> bookings = bookingRepository.findAll(expression);
-        for (Booking book : bookings) {
-            if (start.isAfter(book.getStart()) && start.isBefore(book.getEnd())) {
-                return false;
-            }
-            if (end.isAfter(book.getStart()) && end.isBefore(book.getEnd())) {
-                return false;
-            }
-        }
-        return true;
+        return !bookingRepository.existsOverlapping(itemId, start, end);
     }
 }
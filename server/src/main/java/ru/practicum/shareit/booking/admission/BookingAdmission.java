@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.admission;
+
+import java.util.function.Supplier;
+
+/**
+ * Serializes booking creation for the same item, so two overlapping
+ * reservations can't both pass the availability check.
+ */
+public interface BookingAdmission {
+
+    <T> T admit(Integer itemId, Supplier<T> action);
+}
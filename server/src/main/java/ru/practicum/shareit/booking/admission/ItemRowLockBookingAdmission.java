@@ -0,0 +1,34 @@
+package ru.practicum.shareit.booking.admission;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+import ru.practicum.shareit.item.ItemRepository;
+
+import java.util.function.Supplier;
+
+/**
+ * Multi node mode: the item row is locked with SELECT ... FOR UPDATE, so
+ * every server instance waits on the same database lock.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.booking.admission", havingValue = "database")
+public class ItemRowLockBookingAdmission implements BookingAdmission {
+
+    private final ItemRepository itemRepository;
+
+    private final TransactionOperations transactionOperations;
+
+    public ItemRowLockBookingAdmission(ItemRepository itemRepository, TransactionOperations transactionOperations) {
+        this.itemRepository = itemRepository;
+        this.transactionOperations = transactionOperations;
+    }
+
+    @Override
+    public <T> T admit(Integer itemId, Supplier<T> action) {
+        return transactionOperations.execute(status -> {
+            itemRepository.findByIdForUpdate(itemId);
+            return action.get();
+        });
+    }
+}
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.booking.admission;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Single node mode: item ids are spread over a fixed set of locks.
+ * The lock is held until the transaction commits.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.booking.admission", havingValue = "local", matchIfMissing = true)
+public class StripedLockBookingAdmission implements BookingAdmission {
+
+    private final Lock[] locks;
+
+    private final TransactionOperations transactionOperations;
+
+    public StripedLockBookingAdmission(@Value("${shareit.booking.lock-stripes:64}") int stripes,
+                                       TransactionOperations transactionOperations) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("Lock stripes must be positive");
+        }
+        this.locks = new Lock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.transactionOperations = transactionOperations;
+    }
+
+    @Override
+    public <T> T admit(Integer itemId, Supplier<T> action) {
+        Lock lock = locks[Math.floorMod(itemId.hashCode(), locks.length)];
+        lock.lock();
+        try {
+            return transactionOperations.execute(status -> action.get());
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -1,6 +1,16 @@
 package ru.practicum.shareit.comment;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Integer> {
+
+    @Query(value = "SELECT c FROM Comment c " +
+            "JOIN FETCH c.author " +
+            "WHERE c.item.id IN :itemIds " +
+            "ORDER BY c.id")
+    List<Comment> findAllByItemIdsWithAuthor(Collection<Integer> itemIds);
 }
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * In-process Caffeine regions for the Hibernate second-level cache.
+ * Every application context gets its own cache manager, so contexts sharing a JVM
+ * (e.g. in tests) never see each other's entities.
+ */
+@Configuration
+public class EntityCacheConfig {
+
+    public static final String USERS = "users";
+
+    public static final String ITEMS = "items";
+
+    public static final String REQUESTS = "requests";
+
+    private static final List<String> REGIONS = List.of(USERS, ITEMS, REQUESTS);
+
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager(@Value("${shareit.cache.ttl:10m}") Duration ttl,
+                                           @Value("${shareit.cache.max-size:10000}") long maxSize) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("shareit-entities-" + UUID.randomUUID()), getClass().getClassLoader());
+        for (String region : REGIONS) {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+            configuration.setMaximumSize(OptionalLong.of(maxSize));
+            configuration.setNativeStatisticsEnabled(true);
+            // Hibernate stores immutable disassembled state, copying it on every read is wasted work
+            configuration.setStoreByValue(false);
+            cacheManager.createCache(region, configuration);
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheManagerCustomizer(CacheManager entityCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+    }
+
+    @Bean
+    public MeterBinder entityCacheMetrics(CacheManager entityCacheManager) {
+        return registry -> REGIONS.forEach(region -> CaffeineCacheMetrics.monitor(registry,
+                nativeCache(entityCacheManager, region), region));
+    }
+
+    private static Cache<?, ?> nativeCache(CacheManager cacheManager, String region) {
+        return cacheManager.getCache(region).unwrap(Cache.class);
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Remembers users whose write transactions committed within the replication lag window.
+ * Their reads go to the primary, so a user always sees what they have just written,
+ * while everybody else keeps reading from the replicas.
+ * <p>
+ * The writers are remembered by this instance only; with several instances the gateway
+ * sends a user's requests to the instance that took their write for the same window.
+ */
+public class ReadYourWrites {
+
+    private static final ThreadLocal<Integer> CURRENT_USER = new ThreadLocal<>();
+
+    private final Cache<Integer, Boolean> recentWriters;
+
+    public ReadYourWrites(Duration lagWindow) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(lagWindow)
+                .build();
+    }
+
+    public static void bind(Integer userId) {
+        CURRENT_USER.set(userId);
+    }
+
+    public static void clear() {
+        CURRENT_USER.remove();
+    }
+
+    public boolean mustReadPrimary() {
+        Integer userId = CURRENT_USER.get();
+        return userId != null && recentWriters.getIfPresent(userId) != null;
+    }
+
+    /**
+     * The window starts when the transaction commits, that is when the replicas start catching up.
+     */
+    public void recordWrite() {
+        Integer userId = CURRENT_USER.get();
+        if (userId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recentWriters.put(userId, Boolean.TRUE);
+                }
+            });
+        } else {
+            recentWriters.put(userId, Boolean.TRUE);
+        }
+    }
+}
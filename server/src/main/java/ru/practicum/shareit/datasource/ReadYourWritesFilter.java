@@ -0,0 +1,40 @@
+package ru.practicum.shareit.datasource;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Binds the X-Sharer-User-Id of the request to the thread for {@link ReadYourWrites}.
+ * Missing or malformed headers are left to the controllers.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ReadYourWrites.bind(parseUserId(request.getHeader(USER_HEADER)));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadYourWrites.clear();
+        }
+    }
+
+    private Integer parseUserId(String header) {
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(header.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
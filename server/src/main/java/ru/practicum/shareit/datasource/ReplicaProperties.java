@@ -0,0 +1,35 @@
+package ru.practicum.shareit.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties("shareit.datasource")
+@Getter
+@Setter
+public class ReplicaProperties {
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    /**
+     * How long reads of a user who has just written stay on the primary, should cover the replication lag.
+     */
+    private Duration readYourWrites = Duration.ofSeconds(5);
+
+    @Getter
+    @Setter
+    public static class Replica {
+
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        private int maximumPoolSize = 10;
+    }
+}
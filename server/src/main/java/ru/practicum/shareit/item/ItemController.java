@@ -10,7 +10,9 @@ import ru.practicum.shareit.item.dto.request.ItemCreateRequest;
 import ru.practicum.shareit.item.dto.request.ItemUpdateRequest;
 import ru.practicum.shareit.item.dto.response.ItemGetResponse;
 import ru.practicum.shareit.item.dto.response.ItemResponse;
+import ru.practicum.shareit.pagination.CursorPage;
 
+import javax.servlet.http.HttpServletResponse;
 import java.util.List;
 
 @RestController
@@ -35,9 +37,18 @@ public class ItemController {
     public List<ItemGetResponse> getAllItem(
             @RequestParam(value = "from", defaultValue = "0") Integer from,
             @RequestParam(name = "size", defaultValue = "20") Integer size,
-            @RequestHeader(name = "X-Sharer-User-Id", required = false) Integer userId) {
+            @RequestHeader(name = "X-Sharer-User-Id", required = false) Integer userId,
+            @RequestParam(name = "after", required = false) String after,
+            HttpServletResponse response) {
         log.info("Пришел запрос GET /items userId={}", userId);
-        List<ItemGetResponse> itemDtoList = itemService.getAll(userId, from, size);
+        List<ItemGetResponse> itemDtoList;
+        if (after != null) {
+            CursorPage<ItemGetResponse> page = itemService.getAllAfter(userId, after, size);
+            page.writeNextCursor(response);
+            itemDtoList = page.getContent();
+        } else {
+            itemDtoList = itemService.getAll(userId, from, size);
+        }
         log.info("Отправлен ответ GET /items: {}", itemDtoList);
         return itemDtoList;
     }
@@ -2,6 +2,7 @@ package ru.practicum.shareit.item;
 
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.comment.Comment;
 import ru.practicum.shareit.comment.CommentMapper;
 import ru.practicum.shareit.item.dto.ItemForItemRequestDto;
 import ru.practicum.shareit.item.dto.ItemNameDto;
@@ -45,7 +46,7 @@ public class ItemMapper {
     }
 
 
-    public static ItemGetResponse toItemGetDto(Item model, Booking last, Booking next) {
+    public static ItemGetResponse toItemGetDto(Item model, Booking last, Booking next, List<Comment> comments) {
         return ItemGetResponse.builder()
                 .id(model.getId())
                 .name(model.getName())
@@ -53,7 +54,7 @@ public class ItemMapper {
                 .available(model.getAvailable())
                 .lastBooking(last == null ? null : BookingMapper.toBookingBookerDto(last))
                 .nextBooking(next == null ? null : BookingMapper.toBookingBookerDto(next))
-                .comments(CommentMapper.toDtoList(model.getComments()))
+                .comments(CommentMapper.toDtoList(comments))
                 .build();
     }
 
@@ -1,10 +1,14 @@
 package ru.practicum.shareit.item;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 
+import javax.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Integer> {
@@ -12,18 +16,31 @@ public interface ItemRepository extends JpaRepository<Item, Integer> {
     @Query(value = "SELECT i FROM Item i WHERE " +
             "(LOWER(i.name) LIKE LOWER(CONCAT('%', :text, '%')) OR " +
             "LOWER(i.description) LIKE LOWER(CONCAT('%', :text, '%'))) AND " +
-            "i.available IS TRUE ")
-    Page<Item> findAllByDescriptionOrNameContainsIgnoreCase(String text, Pageable page);
+            "i.available IS TRUE " +
+            "ORDER BY CASE WHEN LOWER(i.name) LIKE LOWER(CONCAT('%', :text, '%')) THEN 0 ELSE 1 END, i.id")
+    Slice<Item> findAllByDescriptionOrNameContainsIgnoreCase(String text, Pageable page);
 
     @Query(value = "SELECT i FROM Item i " +
             "JOIN FETCH i.owner " +
-            "LEFT JOIN i.comments " +
             "WHERE i.id = :id")
     Optional<Item> getItemByIdWithOwner(Integer id);
 
     @Query(value = "SELECT i FROM Item i " +
-            "JOIN i.owner " +
-            "LEFT JOIN i.comments " +
-            "WHERE i.owner.id = :id")
-    Page<Item> findAllByOwnerIdOrderById(Integer id, Pageable page);
+            "WHERE i.owner.id = :id " +
+            "ORDER BY i.id")
+    Slice<Item> findAllByOwnerIdOrderById(Integer id, Pageable page);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(value = "SELECT i FROM Item i WHERE i.id = :id")
+    Optional<Item> findByIdForUpdate(Integer id);
+
+    @Query(value = "SELECT i FROM Item i " +
+            "WHERE i.owner.id = :ownerId AND i.id > :afterId " +
+            "ORDER BY i.id")
+    List<Item> findAllByOwnerIdAfter(Integer ownerId, Integer afterId, Pageable page);
+
+    @Query(value = "SELECT i FROM Item i " +
+            "WHERE i.request.id IN :requestIds " +
+            "ORDER BY i.id")
+    List<Item> findAllByRequestIds(Collection<Integer> requestIds);
 }
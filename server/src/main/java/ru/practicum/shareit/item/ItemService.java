@@ -1,10 +1,10 @@
 package ru.practicum.shareit.item;
 
 import lombok.AllArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.comment.Comment;
@@ -18,16 +18,25 @@ import ru.practicum.shareit.item.dto.request.ItemCreateRequest;
 import ru.practicum.shareit.item.dto.request.ItemUpdateRequest;
 import ru.practicum.shareit.item.dto.response.ItemGetResponse;
 import ru.practicum.shareit.item.dto.response.ItemResponse;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceValidator;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
+@Transactional(readOnly = true)
 @AllArgsConstructor
 public class ItemService {
 
@@ -35,37 +44,47 @@ public class ItemService {
 
     private final UserRepository userRepository;
 
+    private final UserExistenceValidator userExistenceValidator;
+
     private final BookingRepository bookingRepository;
 
     private final CommentRepository commentRepository;
 
     private final ItemRequestRepository itemRequestRepository;
 
+    private final ItemSearchEngine itemSearchEngine;
+
     public ItemGetResponse getItem(Integer id, Integer userId) {
         Item item = itemRepository.getItemByIdWithOwner(id).orElseThrow(() -> new NotFoundException("Item not found"));
         if (userId != null) {
-            getUser(userId);
+            userExistenceValidator.validate(userId);
             if (item.getOwner().getId().equals(userId)) {
-                return getDtoWithBookingFromItem(item, LocalDateTime.now());
+                return toDtoWithBookings(List.of(item)).get(0);
             }
         }
-        return ItemMapper.toItemGetDto(item, null, null);
+        List<Comment> comments = commentRepository.findAllByItemIdsWithAuthor(List.of(id));
+        return ItemMapper.toItemGetDto(item, null, null, comments);
     }
 
     public List<ItemGetResponse> getAll(Integer userId, Integer from, Integer size) {
-        getUser(userId);
+        userExistenceValidator.validate(userId);
         Pageable page = PageRequest.of(from / size, size);
         List<Item> items = itemRepository.findAllByOwnerIdOrderById(userId, page).getContent();
-        List<ItemGetResponse> response = new ArrayList<>();
-        LocalDateTime now = LocalDateTime.now();
-        for (Item item : items) {
-            response.add(getDtoWithBookingFromItem(item, now));
-        }
-        return response;
+        return toDtoWithBookings(items);
     }
 
+    public CursorPage<ItemGetResponse> getAllAfter(Integer userId, String after, Integer size) {
+        userExistenceValidator.validate(userId);
+        Cursor cursor = Cursor.decode(after);
+        Integer afterId = cursor == null ? 0 : cursor.getId();
+        List<Item> items = itemRepository.findAllByOwnerIdAfter(userId, afterId, PageRequest.of(0, size + 1));
+        return CursorPage.of(items, size, item -> Cursor.of(item.getId()), this::toDtoWithBookings);
+    }
+
+    @Transactional
     public ItemResponse saveItem(ItemCreateRequest itemDto, Integer userId) {
-        User user = getUser(userId);
+        userExistenceValidator.validate(userId);
+        User user = userRepository.getReferenceById(userId);
         ItemRequest request = null;
         if (itemDto.getRequestId() != null) {
             request = itemRequestRepository.findById(itemDto.getRequestId())
@@ -73,28 +92,34 @@ public class ItemService {
         }
         Item newItem = ItemMapper.toModel(itemDto, user, request);
         Item item = itemRepository.save(newItem);
+        itemSearchEngine.index(item);
         return ItemMapper.toDto(item);
     }
 
+    @Transactional
     public ItemResponse updateItem(Integer id, ItemUpdateRequest itemDto, Integer userId) {
         Item item = itemRepository.findById(id).orElseThrow(() -> new NotFoundException("Item not found"));
 
         if (!item.getOwner().getId().equals(userId)) {
             throw new NotAuthorizedException("You can't change item");
         }
-        getUser(userId);
+        userExistenceValidator.validate(userId);
 
         ItemMapper.updateModelFromDto(item, itemDto);
-        return ItemMapper.toDto(itemRepository.save(item));
+        Item updatedItem = itemRepository.save(item);
+        itemSearchEngine.index(updatedItem);
+        return ItemMapper.toDto(updatedItem);
     }
 
+    @Transactional
     public void deleteItem(Integer id, Integer userId) {
         Item item = itemRepository.findById(id).orElseThrow(() -> new NotFoundException("Item not found"));
         if (!item.getOwner().getId().equals(userId)) {
             throw new NotAuthorizedException("You can't change item");
         }
-        getUser(userId);
+        userExistenceValidator.validate(userId);
         itemRepository.deleteById(id);
+        itemSearchEngine.remove(id);
     }
 
     public List<ItemResponse> findByText(String text, Integer from, Integer size) {
@@ -102,46 +127,38 @@ public class ItemService {
             return new ArrayList<>();
         }
         Pageable page = PageRequest.of(from / size, size);
-        Page<Item> items = itemRepository.findAllByDescriptionOrNameContainsIgnoreCase(text.trim(), page);
-        return ItemMapper.toDtoList(items.getContent());
+        return ItemMapper.toDtoList(itemSearchEngine.search(text.trim(), page));
     }
 
     private User getUser(Integer userId) {
         return userRepository.findById(userId).orElseThrow(() -> new NotFoundException("User not found"));
     }
 
-    private ItemGetResponse getDtoWithBookingFromItem(Item item, LocalDateTime now) {
-        List<Booking> bookings = bookingRepository.findAllByItem_Id(item.getId());
-        if (!bookings.isEmpty()) {
-            Booking last = null;
-            Booking next = null;
-
-            for (int i = 0; i < bookings.size(); i++) {
-                Booking currentBook = bookings.get(i);
-                if (currentBook.getEnd().isAfter(now)) {
-                    if (currentBook.getStart().isBefore(now)) {
-                        last = bookings.get(i);
-
-                        if (i + 1 < bookings.size()) {
-                            next = bookings.get(i - 1);
-                        }
-
-                    } else {
-                        if (i - 1 >= 0) {
-                            last = bookings.get(i - 1);
-                        }
-                        next = bookings.get(i);
-                    }
-                    break;
-                }
-            }
-
-            return ItemMapper.toItemGetDto(item, last, next);
-        } else {
-            return ItemMapper.toItemGetDto(item, null, null);
+    private List<ItemGetResponse> toDtoWithBookings(List<Item> items) {
+        if (items.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Integer> itemIds = items.stream().map(Item::getId).collect(Collectors.toList());
+        LocalDateTime now = LocalDateTime.now();
+        Map<Integer, Booking> lastBookings = mapByItemId(bookingRepository.findLastApprovedByItemIds(itemIds, now));
+        Map<Integer, Booking> nextBookings = mapByItemId(bookingRepository.findNextApprovedByItemIds(itemIds, now));
+        Map<Integer, List<Comment>> comments = commentRepository.findAllByItemIdsWithAuthor(itemIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
+        List<ItemGetResponse> response = new ArrayList<>();
+        for (Item item : items) {
+            response.add(ItemMapper.toItemGetDto(item, lastBookings.get(item.getId()), nextBookings.get(item.getId()),
+                    comments.getOrDefault(item.getId(), Collections.emptyList())));
         }
+        return response;
+    }
+
+    private Map<Integer, Booking> mapByItemId(List<Booking> bookings) {
+        return bookings.stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), Function.identity(),
+                        (first, second) -> first.getId() < second.getId() ? first : second));
     }
 
+    @Transactional
     public CommentResponse addComment(CommentRequest dto, Integer itemId, Integer userId) {
         User user = getUser(userId);
         Item item = itemRepository.findById(itemId).orElseThrow(() -> new NotFoundException("Item not found"));
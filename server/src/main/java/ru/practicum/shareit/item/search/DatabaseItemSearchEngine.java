@@ -0,0 +1,27 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+
+import java.util.List;
+
+/**
+ * Searches in the database. On Postgres the LIKE predicates are served by
+ * the trigram indexes from the postgresql migrations.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "database", matchIfMissing = true)
+@AllArgsConstructor
+public class DatabaseItemSearchEngine implements ItemSearchEngine {
+
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> search(String text, Pageable page) {
+        return itemRepository.findAllByDescriptionOrNameContainsIgnoreCase(text, page).getContent();
+    }
+}
@@ -0,0 +1,194 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-process trigram index of available items. Only the ids of the
+ * requested page are loaded from the database.
+ * <p>
+ * Changes made inside a transaction reach the index once it commits. Every server
+ * instance keeps its own index, so with several instances an item written through
+ * one of them is only found through the others after their next restart.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory")
+@Slf4j
+public class InMemoryItemSearchEngine implements ItemSearchEngine {
+
+    private static final int GRAM = 3;
+
+    private final ItemRepository itemRepository;
+
+    private final Map<Integer, Document> documents = new ConcurrentHashMap<>();
+
+    private final Map<String, Set<Integer>> postings = new ConcurrentHashMap<>();
+
+    public InMemoryItemSearchEngine(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Item> items = itemRepository.findAll();
+        items.forEach(this::index);
+        log.info("Search index built for {} items", documents.size());
+    }
+
+    @Override
+    public List<Item> search(String text, Pageable page) {
+        String query = text.toLowerCase(Locale.ROOT);
+        List<Integer> ids = candidates(query).stream()
+                .map(documents::get)
+                .filter(document -> document != null && document.score(query) > 0)
+                .sorted(Comparator.comparingInt((Document document) -> document.score(query)).reversed()
+                        .thenComparing(Document::getId))
+                .skip(page.getOffset())
+                .limit(page.getPageSize())
+                .map(Document::getId)
+                .collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Integer, Item> items = itemRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        List<Item> result = new ArrayList<>();
+        for (Integer id : ids) {
+            Item item = items.get(id);
+            if (item != null) {
+                result.add(item);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void index(Item item) {
+        Document document = Boolean.TRUE.equals(item.getAvailable())
+                ? new Document(item.getId(), lower(item.getName()), lower(item.getDescription()))
+                : null;
+        Integer itemId = item.getId();
+        afterCommit(() -> replace(itemId, document));
+    }
+
+    @Override
+    public void remove(Integer itemId) {
+        afterCommit(() -> replace(itemId, null));
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    private synchronized void replace(Integer itemId, Document document) {
+        Document previous = documents.remove(itemId);
+        if (previous != null) {
+            for (String gram : previous.grams()) {
+                Set<Integer> ids = postings.get(gram);
+                if (ids != null) {
+                    ids.remove(itemId);
+                    if (ids.isEmpty()) {
+                        postings.remove(gram);
+                    }
+                }
+            }
+        }
+        if (document == null) {
+            return;
+        }
+        documents.put(itemId, document);
+        for (String gram : document.grams()) {
+            postings.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet()).add(itemId);
+        }
+    }
+
+    private Set<Integer> candidates(String query) {
+        if (query.length() < GRAM) {
+            return documents.keySet();
+        }
+        Set<Integer> smallest = null;
+        for (String gram : grams(query)) {
+            Set<Integer> ids = postings.get(gram);
+            if (ids == null) {
+                return Collections.emptySet();
+            }
+            if (smallest == null || ids.size() < smallest.size()) {
+                smallest = ids;
+            }
+        }
+        return smallest;
+    }
+
+    private static String lower(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> grams(String value) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static final class Document {
+
+        private final Integer id;
+
+        private final String name;
+
+        private final String description;
+
+        private Document(Integer id, String name, String description) {
+            this.id = id;
+            this.name = name;
+            this.description = description;
+        }
+
+        private Integer getId() {
+            return id;
+        }
+
+        private Set<String> grams() {
+            Set<String> grams = InMemoryItemSearchEngine.grams(name);
+            grams.addAll(InMemoryItemSearchEngine.grams(description));
+            return grams;
+        }
+
+        private int score(String query) {
+            if (name.contains(query)) {
+                return 2;
+            }
+            return description.contains(query) ? 1 : 0;
+        }
+    }
+}
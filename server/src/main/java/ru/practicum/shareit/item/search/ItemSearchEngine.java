@@ -0,0 +1,22 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.Item;
+
+import java.util.List;
+
+/**
+ * Backend for GET /items/search, selected with shareit.search.engine.
+ * Matches available items whose name or description contains the text,
+ * items matched by name go first.
+ */
+public interface ItemSearchEngine {
+
+    List<Item> search(String text, Pageable page);
+
+    default void index(Item item) {
+    }
+
+    default void remove(Integer itemId) {
+    }
+}
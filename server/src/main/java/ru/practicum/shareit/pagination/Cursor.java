@@ -0,0 +1,58 @@
+package ru.practicum.shareit.pagination;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position: the sort value of the last returned row and its id.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class Cursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime time;
+
+    private final Integer id;
+
+    public static Cursor of(LocalDateTime time, Integer id) {
+        return new Cursor(time, id);
+    }
+
+    public static Cursor of(Integer id) {
+        return new Cursor(null, id);
+    }
+
+    /**
+     * Returns null for an empty token, which means the first page.
+     */
+    public static Cursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            String time = raw.substring(0, separator);
+            Integer id = Integer.valueOf(raw.substring(separator + 1));
+            return new Cursor(time.isEmpty() ? null : LocalDateTime.parse(time), id);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = (time == null ? "" : time.toString()) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import javax.servlet.http.HttpServletResponse;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Data
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private List<T> content;
+
+    private String next;
+
+    /**
+     * Builds a page from rows fetched with limit size + 1: the extra row
+     * only tells that there is a next page.
+     */
+    public static <E, T> CursorPage<T> of(List<E> rows, int size, Function<E, Cursor> cursorOf,
+                                          Function<List<E>, List<T>> mapper) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(mapper.apply(rows), null);
+        }
+        List<E> page = rows.subList(0, size);
+        return new CursorPage<>(mapper.apply(page), cursorOf.apply(page.get(size - 1)).encode());
+    }
+
+    public void writeNextCursor(HttpServletResponse response) {
+        if (next != null) {
+            response.setHeader(NEXT_CURSOR_HEADER, next);
+        }
+    }
+
+    public static <E, T> CursorPage<T> ofEach(List<E> rows, int size, Function<E, Cursor> cursorOf,
+                                              Function<E, T> mapper) {
+        return of(rows, size, cursorOf, page -> page.stream().map(mapper).collect(Collectors.toList()));
+    }
+}
@@ -1,7 +1,10 @@
 package ru.practicum.shareit.request;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import ru.practicum.shareit.config.EntityCacheConfig;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.user.User;
 
@@ -13,6 +16,8 @@ import java.util.List;
 @NoArgsConstructor
 @Data
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCacheConfig.REQUESTS)
 @Builder
 @Table(name = "requests")
 public class ItemRequest {
@@ -5,9 +5,11 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.exception.model.NotAuthenticatedException;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestRequest;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import java.util.List;
 
@@ -49,7 +51,9 @@ public class ItemRequestController {
     public List<ItemRequestDto> getAllRequests(
             @RequestHeader(name = "X-Sharer-User-Id", required = false) Integer userId,
             @RequestParam(value = "from", defaultValue = "0") Integer from,
-            @RequestParam(name = "size", defaultValue = "20") Integer size
+            @RequestParam(name = "size", defaultValue = "20") Integer size,
+            @RequestParam(name = "after", required = false) String after,
+            HttpServletResponse servletResponse
     ) {
         log.info("Пришел запрос GET /requests/all?from={}&size={}", from, size);
         if (userId == null) {
@@ -58,7 +62,14 @@ public class ItemRequestController {
         if (from < 0 || size < 1) {
             throw new IllegalArgumentException("Page must be from>0 and size>1");
         }
-        List<ItemRequestDto> response = itemRequestService.getAllItemRequest(userId, from, size);
+        List<ItemRequestDto> response;
+        if (after != null) {
+            CursorPage<ItemRequestDto> page = itemRequestService.getAllItemRequestAfter(userId, after, size);
+            page.writeNextCursor(servletResponse);
+            response = page.getContent();
+        } else {
+            response = itemRequestService.getAllItemRequest(userId, from, size);
+        }
         log.info("Отправлен ответ GET /requests/all : {}", response);
         return response;
     }
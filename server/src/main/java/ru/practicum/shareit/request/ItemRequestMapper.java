@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request;
 
+import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestRequest;
@@ -7,6 +8,7 @@ import ru.practicum.shareit.user.User;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 public class ItemRequestMapper {
@@ -23,18 +25,22 @@ public class ItemRequestMapper {
     }
 
     public static ItemRequestDto toDto(ItemRequest model) {
+        return toDto(model, model.getItems() != null ? model.getItems() : Collections.emptyList());
+    }
+
+    public static ItemRequestDto toDto(ItemRequest model, List<Item> items) {
 
         return ItemRequestDto.builder()
                 .id(model.getId())
                 .description(model.getDescription())
                 .created(model.getCreatedAt())
-                .items(model.getItems() != null ?
-                        ItemMapper.toItemForItemRequestDtoList(model.getItems()) :
-                        Collections.emptyList())
+                .items(ItemMapper.toItemForItemRequestDtoList(items))
                 .build();
     }
 
-    public static List<ItemRequestDto> toDtoList(List<ItemRequest> requests) {
-        return requests.stream().map(ItemRequestMapper::toDto).collect(Collectors.toList());
+    public static List<ItemRequestDto> toDtoList(List<ItemRequest> requests, Map<Integer, List<Item>> itemsByRequestId) {
+        return requests.stream()
+                .map(request -> toDto(request, itemsByRequestId.getOrDefault(request.getId(), Collections.emptyList())))
+                .collect(Collectors.toList());
     }
 }
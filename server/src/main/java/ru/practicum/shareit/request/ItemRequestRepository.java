@@ -1,28 +1,33 @@
 package ru.practicum.shareit.request;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Integer> {
 
     @Query(value = "SELECT ir FROM ItemRequest ir " +
-            "LEFT JOIN ir.items " +
             "WHERE ir.author.id=:userId " +
-            "ORDER BY ir.createdAt DESC")
-    List<ItemRequest> getAllByUserIdWithItems(Integer userId);
+            "ORDER BY ir.createdAt DESC, ir.id DESC")
+    List<ItemRequest> getAllByUserId(Integer userId);
+
+    @Query(value = "SELECT DISTINCT ir FROM ItemRequest ir " +
+            "LEFT JOIN FETCH ir.items " +
+            "WHERE ir.id=:id")
+    Optional<ItemRequest> getByIdWithItems(Integer id);
 
     @Query(value = "SELECT ir FROM ItemRequest ir " +
-            "LEFT JOIN ir.items " +
-            "WHERE ir.author.id != :userId")
-    Page<ItemRequest> getAllWithItems(Integer userId, Pageable page);
+            "WHERE ir.author.id <> :userId " +
+            "ORDER BY ir.createdAt DESC, ir.id DESC")
+    List<ItemRequest> getAllOthers(Integer userId, Pageable page);
 
     @Query(value = "SELECT ir FROM ItemRequest ir " +
-            "LEFT JOIN ir.items " +
-            "WHERE ir.id=:id")
-    Optional<ItemRequest> getByIdWithItems(Integer id);
+            "WHERE ir.author.id <> :userId AND " +
+            "(ir.createdAt < :createdAt OR (ir.createdAt = :createdAt AND ir.id < :id)) " +
+            "ORDER BY ir.createdAt DESC, ir.id DESC")
+    List<ItemRequest> getAllOthersAfter(Integer userId, LocalDateTime createdAt, Integer id, Pageable page);
 }
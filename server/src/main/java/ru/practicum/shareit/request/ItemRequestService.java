@@ -1,20 +1,28 @@
 package ru.practicum.shareit.request;
 
 import lombok.AllArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.model.NotFoundException;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestRequest;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceValidator;
 import ru.practicum.shareit.user.UserRepository;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
+@Transactional(readOnly = true)
 @AllArgsConstructor
 public class ItemRequestService {
 
@@ -22,29 +30,61 @@ public class ItemRequestService {
 
     private final UserRepository userRepository;
 
+    private final ItemRepository itemRepository;
+
+    private final UserExistenceValidator userExistenceValidator;
+
+    @Transactional
     public ItemRequestDto addItemRequest(ItemRequestRequest dto, Integer userId) {
-        User user = userRepository.findById(userId).orElseThrow(() -> new NotFoundException("User not found"));
+        userExistenceValidator.validate(userId);
+        User user = userRepository.getReferenceById(userId);
         ItemRequest newItemRequest = ItemRequestMapper.toModel(dto, user);
         ItemRequest itemRequest = itemRequestRepository.save(newItemRequest);
         return ItemRequestMapper.toDto(itemRequest);
     }
 
     public List<ItemRequestDto> getOwnItemRequest(Integer userId) {
-        userRepository.findById(userId).orElseThrow(() -> new NotFoundException("User not found"));
-        List<ItemRequest> requests = itemRequestRepository.getAllByUserIdWithItems(userId);
-        return ItemRequestMapper.toDtoList(requests);
+        userExistenceValidator.validate(userId);
+        List<ItemRequest> requests = itemRequestRepository.getAllByUserId(userId);
+        return toDtoWithItems(requests);
     }
 
     public List<ItemRequestDto> getAllItemRequest(Integer userId, Integer from, Integer size) {
-        Pageable page = PageRequest.of(from / size, size, Sort.by(Sort.Direction.DESC, "createdAt"));
-        Page<ItemRequest> requestPage = itemRequestRepository.getAllWithItems(userId, page);
-        return ItemRequestMapper.toDtoList(requestPage.getContent());
+        Pageable page = PageRequest.of(from / size, size);
+        List<ItemRequest> requests = itemRequestRepository.getAllOthers(userId, page);
+        return toDtoWithItems(requests);
+    }
+
+    public CursorPage<ItemRequestDto> getAllItemRequestAfter(Integer userId, String after, Integer size) {
+        Cursor cursor = Cursor.decode(after);
+        Pageable page = PageRequest.of(0, size + 1);
+        List<ItemRequest> requests;
+        if (cursor == null) {
+            requests = itemRequestRepository.getAllOthers(userId, page);
+        } else {
+            if (cursor.getTime() == null) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            requests = itemRequestRepository.getAllOthersAfter(userId, cursor.getTime(), cursor.getId(), page);
+        }
+        return CursorPage.of(requests, size, last -> Cursor.of(last.getCreatedAt(), last.getId()),
+                this::toDtoWithItems);
     }
 
     public ItemRequestDto getItemRequest(Integer id, Integer userId) {
-        userRepository.findById(userId).orElseThrow(() -> new NotFoundException("User not found"));
+        userExistenceValidator.validate(userId);
         ItemRequest itemRequest = itemRequestRepository.getByIdWithItems(id)
                 .orElseThrow(() -> new NotFoundException("Request not found"));
         return ItemRequestMapper.toDto(itemRequest);
     }
+
+    private List<ItemRequestDto> toDtoWithItems(List<ItemRequest> requests) {
+        if (requests.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Integer> requestIds = requests.stream().map(ItemRequest::getId).collect(Collectors.toList());
+        Map<Integer, List<Item>> itemsByRequestId = itemRepository.findAllByRequestIds(requestIds).stream()
+                .collect(Collectors.groupingBy(item -> item.getRequest().getId()));
+        return ItemRequestMapper.toDtoList(requests, itemsByRequestId);
+    }
 }
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.user;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.exception.model.NotFoundException;
+
+import java.time.Duration;
+
+/**
+ * Checks the X-Sharer-User-Id header without loading the user: ids are checked with an id-only
+ * query once and then remembered until they expire or the user is deleted.
+ * <p>
+ * The ids are remembered per server instance: a user deleted through another instance stays
+ * valid here until the entry expires, so the ttl is kept short.
+ */
+@Component
+public class UserExistenceValidator {
+
+    private final UserRepository userRepository;
+
+    private final Cache<Integer, Boolean> knownUserIds;
+
+    public UserExistenceValidator(UserRepository userRepository,
+                                  @Value("${shareit.user-existence.ttl:30s}") Duration ttl,
+                                  @Value("${shareit.cache.max-size:10000}") long maxSize) {
+        this.userRepository = userRepository;
+        this.knownUserIds = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    public void validate(Integer userId) {
+        if (userId != null && knownUserIds.getIfPresent(userId) != null) {
+            return;
+        }
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("User not found");
+        }
+        knownUserIds.put(userId, Boolean.TRUE);
+    }
+
+    /**
+     * Forgets the user once the deleting transaction commits, before that a concurrent
+     * check still sees the row and would remember the user again.
+     */
+    public void forget(Integer userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    knownUserIds.invalidate(userId);
+                }
+            });
+        } else {
+            knownUserIds.invalidate(userId);
+        }
+    }
+}
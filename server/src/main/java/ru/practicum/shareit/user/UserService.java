@@ -2,6 +2,7 @@ package ru.practicum.shareit.user;
 
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.model.NotFoundException;
 import ru.practicum.shareit.user.dto.request.UserCreateRequest;
 import ru.practicum.shareit.user.dto.request.UserUpdateRequest;
@@ -10,11 +11,14 @@ import ru.practicum.shareit.user.dto.response.UserResponse;
 import java.util.List;
 
 @Service
+@Transactional(readOnly = true)
 @AllArgsConstructor
 public class UserService {
 
     private final UserRepository userRepository;
 
+    private final UserExistenceValidator userExistenceValidator;
+
     public UserResponse getUser(Integer id) {
         User user = userRepository.findById(id).orElseThrow(() -> new NotFoundException("User not found"));
         return UserMapper.toDto(user);
@@ -24,20 +28,24 @@ public class UserService {
         return UserMapper.toDtoList(userRepository.findAll());
     }
 
+    @Transactional
     public UserResponse saveUser(UserCreateRequest userDto) {
         User newUser = UserMapper.toModel(userDto);
         User user = userRepository.save(newUser);
         return UserMapper.toDto(user);
     }
 
+    @Transactional
     public UserResponse updateUser(Integer id, UserUpdateRequest userDto) {
         User user = userRepository.findById(id).orElseThrow(() -> new NotFoundException("User not found"));
         UserMapper.updateModelFromDto(user, userDto);
         return UserMapper.toDto(userRepository.save(user));
     }
 
+    @Transactional
     public void deleteUser(Integer id) {
-        userRepository.findById(id).orElseThrow(() -> new NotFoundException("User not found"));
+        userExistenceValidator.validate(id);
         userRepository.deleteById(id);
+        userExistenceValidator.forget(id);
     }
 }
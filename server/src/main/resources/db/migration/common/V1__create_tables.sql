@@ -1,11 +1,3 @@
-DROP TABLE IF EXISTS bookings;
-DROP TABLE IF EXISTS comments;
-DROP TABLE IF EXISTS items;
-DROP TABLE IF EXISTS requests;
-DROP TABLE IF EXISTS users;
-DROP
-TYPE  IF EXISTS status;
-
 CREATE TABLE IF NOT EXISTS users
 (
     id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
@@ -57,4 +49,5 @@ CREATE TABLE IF NOT EXISTS comments
     cdate     TIMESTAMP NOT NULL DEFAULT NOW(),
     FOREIGN KEY (item_id) REFERENCES items (id),
     FOREIGN KEY (author_id) REFERENCES users (id)
-);
\ No newline at end of file
+);
+
@@ -0,0 +1,11 @@
+CREATE INDEX IF NOT EXISTS requests_author_created_idx ON requests (user_id, cdate DESC, id DESC);
+CREATE INDEX IF NOT EXISTS requests_created_idx ON requests (cdate DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS items_owner_idx ON items (user_id, id);
+CREATE INDEX IF NOT EXISTS items_request_idx ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS bookings_item_period_idx ON bookings (item_id, start_time, end_time);
+CREATE INDEX IF NOT EXISTS bookings_item_status_start_idx ON bookings (item_id, status, start_time);
+CREATE INDEX IF NOT EXISTS bookings_booker_start_idx ON bookings (user_id, start_time DESC);
+
+CREATE INDEX IF NOT EXISTS comments_item_idx ON comments (item_id, id);
@@ -0,0 +1,21 @@
+-- CONCURRENTLY keeps the tables writable while the indexes are built, so the migration can run during
+-- a rolling restart. Flyway runs this script outside a transaction; if a build fails the index is left
+-- INVALID and has to be dropped by hand before the migration is repaired and retried.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS requests_author_created_idx ON requests (user_id, cdate DESC, id DESC);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS requests_created_idx ON requests (cdate DESC, id DESC);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS items_owner_idx ON items (user_id, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS items_request_idx ON items (request_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS items_name_trgm_idx ON items USING gin (LOWER(name) gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS items_description_trgm_idx ON items USING gin (LOWER(description) gin_trgm_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS bookings_item_period_idx ON bookings (item_id, start_time, end_time);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS bookings_item_status_start_idx ON bookings (item_id, status, start_time);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS bookings_booker_start_idx ON bookings (user_id, start_time DESC);
+
+-- partial indexes for the WAITING state lists and the "has the user rented the item" comment check
+CREATE INDEX CONCURRENTLY IF NOT EXISTS bookings_waiting_booker_start_idx ON bookings (user_id, start_time DESC) WHERE status = 'WAITING';
+CREATE INDEX CONCURRENTLY IF NOT EXISTS bookings_waiting_item_start_idx ON bookings (item_id, start_time DESC) WHERE status = 'WAITING';
+CREATE INDEX CONCURRENTLY IF NOT EXISTS bookings_approved_booker_item_idx ON bookings (user_id, item_id, start_time) WHERE status = 'APPROVED';
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS comments_item_idx ON comments (item_id, id);
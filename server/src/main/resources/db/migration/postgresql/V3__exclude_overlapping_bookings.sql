@@ -0,0 +1,11 @@
+-- btree_gist lets the plain item_id column take part in the GiST exclusion next to the time range
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- The database itself refuses a second waiting or approved booking whose [start, end) range overlaps
+-- another one of the same item, whatever path the insert takes. The constraint's GiST index also serves
+-- range overlap lookups. Adding it locks the bookings table while the index is built, and it fails if
+-- overlapping active bookings already exist; cancel or reject those first, then repair and rerun.
+ALTER TABLE bookings
+    ADD CONSTRAINT bookings_no_overlap_excl
+    EXCLUDE USING gist (item_id WITH =, tsrange(start_time, end_time) WITH &&)
+    WHERE (status IN ('WAITING', 'APPROVED'));
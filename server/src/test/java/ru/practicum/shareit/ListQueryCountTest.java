@@ -0,0 +1,193 @@
+package ru.practicum.shareit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.comment.Comment;
+import ru.practicum.shareit.comment.CommentRepository;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Guards the number of SQL statements per list endpoint on warm caches: paged lists must
+ * not issue COUNT queries or load associations row by row.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-count",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ListQueryCountTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    private User owner;
+
+    private User booker;
+
+    @BeforeAll
+    void setUp() {
+        owner = userRepository.save(User.builder().name("owner").email("owner@mail.ru").build());
+        booker = userRepository.save(User.builder().name("booker").email("booker@mail.ru").build());
+        ItemRequest firstRequest = itemRequestRepository.save(ItemRequest.builder()
+                .description("first")
+                .author(owner)
+                .build());
+        ItemRequest secondRequest = itemRequestRepository.save(ItemRequest.builder()
+                .description("second")
+                .author(owner)
+                .build());
+        Item drill = itemRepository.save(Item.builder()
+                .name("Дрель")
+                .description("Простая дрель")
+                .available(true)
+                .owner(owner)
+                .request(firstRequest)
+                .build());
+        Item saw = itemRepository.save(Item.builder()
+                .name("Пила")
+                .description("Ручная пила")
+                .available(true)
+                .owner(owner)
+                .request(secondRequest)
+                .build());
+        LocalDateTime now = LocalDateTime.now();
+        for (Item item : Arrays.asList(drill, saw)) {
+            bookingRepository.save(Booking.builder()
+                    .start(now.minusDays(2))
+                    .end(now.minusDays(1))
+                    .item(item)
+                    .booker(booker)
+                    .status(Status.APPROVED)
+                    .build());
+            bookingRepository.save(Booking.builder()
+                    .start(now.plusDays(1))
+                    .end(now.plusDays(2))
+                    .item(item)
+                    .booker(booker)
+                    .status(Status.APPROVED)
+                    .build());
+            for (int i = 0; i < 3; i++) {
+                commentRepository.save(Comment.builder()
+                        .text("comment " + i)
+                        .item(item)
+                        .author(i % 2 == 0 ? booker : owner)
+                        .build());
+            }
+        }
+    }
+
+    @Test
+    void getUserBookings() throws Exception {
+        assertStatements(1, get("/bookings").header("X-Sharer-User-Id", booker.getId()));
+    }
+
+    @Test
+    void getUserItemsBookings() throws Exception {
+        assertStatements(1, get("/bookings/owner").header("X-Sharer-User-Id", owner.getId()));
+    }
+
+    @Test
+    void getOwnerItems() throws Exception {
+        assertStatements(4, get("/items").header("X-Sharer-User-Id", owner.getId()));
+    }
+
+    @Test
+    void getOwnerItemsShouldNotDependOnPageSize() throws Exception {
+        assertStatements(4, get("/items?from=0&size=1").header("X-Sharer-User-Id", owner.getId()));
+        assertStatements(4, get("/items?from=0&size=20").header("X-Sharer-User-Id", owner.getId()));
+    }
+
+    @Test
+    void searchItems() throws Exception {
+        assertStatements(1, get("/items/search?text=пила"));
+    }
+
+    @Test
+    void getOwnRequests() throws Exception {
+        assertStatements(2, get("/requests").header("X-Sharer-User-Id", owner.getId()));
+    }
+
+    @Test
+    void getAllRequests() throws Exception {
+        assertStatements(2, get("/requests/all").header("X-Sharer-User-Id", booker.getId()));
+    }
+
+    @Test
+    void getAllRequestsShouldNotDependOnPageSize() throws Exception {
+        assertStatements(2, get("/requests/all?from=0&size=1").header("X-Sharer-User-Id", booker.getId()));
+        assertStatements(2, get("/requests/all?from=0&size=20").header("X-Sharer-User-Id", booker.getId()));
+    }
+
+    @Test
+    void getBookingsShouldNotDependOnPageSizeWithColdEntityCache() throws Exception {
+        for (int size : new int[]{1, 20}) {
+            assertStatementsWithColdEntityCache(1, get("/bookings?from=0&size=" + size)
+                    .header("X-Sharer-User-Id", booker.getId()));
+            assertStatementsWithColdEntityCache(1, get("/bookings/owner?from=0&size=" + size)
+                    .header("X-Sharer-User-Id", owner.getId()));
+            assertStatementsWithColdEntityCache(1, get("/bookings?size=" + size + "&after=")
+                    .header("X-Sharer-User-Id", booker.getId()));
+        }
+    }
+
+    private void assertStatementsWithColdEntityCache(long expected, RequestBuilder request) throws Exception {
+        mvc.perform(request).andExpect(status().isOk());
+        entityManagerFactory.getCache().evictAll();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mvc.perform(request).andExpect(status().isOk());
+        assertEquals(expected, statistics.getPrepareStatementCount());
+    }
+
+    private void assertStatements(long expected, RequestBuilder request) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        // the first call warms the user id and entity caches, the second one is what every later request costs
+        mvc.perform(request).andExpect(status().isOk());
+        statistics.clear();
+        mvc.perform(request).andExpect(status().isOk());
+        assertEquals(expected, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,177 @@
+package ru.practicum.shareit;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.QBooking;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.comment.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.request.ItemRequestRepository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Runs EXPLAIN for the SQL of every repository query on a seeded database and fails
+ * when a table is scanned. Substring search is left out: it relies on the trigram
+ * indexes that only exist on Postgres.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-plan",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=ru.practicum.shareit.QueryPlanTest$SqlRecorder"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanTest {
+
+    private static final int USERS = 50;
+
+    private static final int ITEMS = 500;
+
+    private static final int REQUESTS = 200;
+
+    private static final int BOOKINGS = 5000;
+
+    private static final int COMMENTS = 1000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @BeforeAll
+    void setUp() {
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 1; i <= USERS; i++) {
+            users.add(new Object[]{i, "user" + i, "user" + i + "@mail.ru"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, name, email) VALUES (?, ?, ?)", users);
+
+        List<Object[]> requests = new ArrayList<>();
+        for (int i = 1; i <= REQUESTS; i++) {
+            requests.add(new Object[]{i, "request" + i, i % USERS + 1, Timestamp.valueOf(now.minusHours(i))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO requests (id, description, user_id, cdate) VALUES (?, ?, ?, ?)", requests);
+
+        List<Object[]> items = new ArrayList<>();
+        for (int i = 1; i <= ITEMS; i++) {
+            items.add(new Object[]{i, "item" + i, "description" + i, i % USERS + 1, i % 3 == 0 ? i % REQUESTS + 1 : null});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO items (id, name, description, available, user_id, request_id) " +
+                "VALUES (?, ?, ?, TRUE, ?, ?)", items);
+
+        List<Object[]> bookings = new ArrayList<>();
+        Status[] statuses = Status.values();
+        for (int i = 1; i <= BOOKINGS; i++) {
+            LocalDateTime start = now.plusHours(i - BOOKINGS / 2);
+            bookings.add(new Object[]{i, Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(1)),
+                    i % ITEMS + 1, i % USERS + 1, statuses[i % statuses.length].name()});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (id, start_time, end_time, item_id, user_id, status) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", bookings);
+
+        List<Object[]> comments = new ArrayList<>();
+        for (int i = 1; i <= COMMENTS; i++) {
+            comments.add(new Object[]{i, "comment" + i, i % ITEMS + 1, i % USERS + 1});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO comments (id, text, item_id, author_id) VALUES (?, ?, ?, ?)", comments);
+
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void bookingQueriesShouldUseIndexes() {
+        QBooking booking = QBooking.booking;
+        PageRequest page = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "start"));
+
+        assertNoTableScan(() -> bookingRepository.findByIdWithBookerAndItem(1));
+        assertNoTableScan(() -> bookingRepository.findAllByItem_Id(1));
+        assertNoTableScan(() -> bookingRepository.findLastApprovedByItemIds(List.of(1, 2), now));
+        assertNoTableScan(() -> bookingRepository.findNextApprovedByItemIds(List.of(1, 2), now));
+        assertNoTableScan(() -> bookingRepository.countByBookerIdAndItemId(1, 1, now));
+        assertNoTableScan(() -> bookingRepository.existsOverlapping(1, now, now.plusDays(1)));
+        assertNoTableScan(() -> bookingRepository.findSlice(booking.booker.id.eq(1), page));
+        assertNoTableScan(() -> bookingRepository.findSlice(booking.booker.id.eq(1)
+                .and(booking.status.eq(Status.WAITING)), page));
+        assertNoTableScan(() -> bookingRepository.findSlice(booking.item.owner.id.eq(1), page));
+        assertNoTableScan(() -> bookingRepository.findLimited(booking.booker.id.eq(1)
+                .and(booking.start.lt(now)), 21, booking.start.desc(), booking.id.desc()));
+    }
+
+    @Test
+    void itemQueriesShouldUseIndexes() {
+        assertNoTableScan(() -> itemRepository.getItemByIdWithOwner(1));
+        assertNoTableScan(() -> itemRepository.findAllByOwnerIdOrderById(1, PageRequest.of(0, 20)));
+        assertNoTableScan(() -> itemRepository.findAllByOwnerIdAfter(1, 100, PageRequest.of(0, 21)));
+        assertNoTableScan(() -> itemRepository.findAllByRequestIds(List.of(1, 2, 3)));
+        assertNoTableScan(() -> itemRepository.findByIdForUpdate(1));
+    }
+
+    @Test
+    void commentQueriesShouldUseIndexes() {
+        assertNoTableScan(() -> commentRepository.findAllByItemIdsWithAuthor(List.of(1, 2, 3)));
+    }
+
+    @Test
+    void itemRequestQueriesShouldUseIndexes() {
+        assertNoTableScan(() -> itemRequestRepository.getAllByUserId(1));
+        assertNoTableScan(() -> itemRequestRepository.getByIdWithItems(1));
+        assertNoTableScan(() -> itemRequestRepository.getAllOthers(1, PageRequest.of(0, 21)));
+        assertNoTableScan(() -> itemRequestRepository.getAllOthersAfter(1, now.minusHours(50), 50,
+                PageRequest.of(0, 21)));
+    }
+
+    private void assertNoTableScan(Runnable query) {
+        SqlRecorder.clear();
+        query.run();
+        List<String> statements = SqlRecorder.statements();
+        assertFalse(statements.isEmpty(), "No statement was executed");
+        for (String sql : statements) {
+            String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+            assertFalse(plan.contains(".tableScan"), () -> "Table scan in plan:\n" + plan);
+        }
+    }
+
+    public static class SqlRecorder implements StatementInspector {
+
+        private static final List<String> STATEMENTS = Collections.synchronizedList(new ArrayList<>());
+
+        static void clear() {
+            STATEMENTS.clear();
+        }
+
+        static List<String> statements() {
+            return new ArrayList<>(STATEMENTS);
+        }
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
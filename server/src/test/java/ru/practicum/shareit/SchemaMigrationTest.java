@@ -0,0 +1,42 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:schema-migration",
+})
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class SchemaMigrationTest {
+
+    @Autowired
+    private final Flyway flyway;
+
+    @Autowired
+    private final UserRepository userRepository;
+
+    @Test
+    void startupShouldApplyCommonAndVendorMigrations() {
+        assertEquals("2", flyway.info().current().getVersion().getVersion());
+        assertEquals(0, flyway.info().pending().length);
+    }
+
+    @Test
+    void repeatedMigrateShouldKeepData() {
+        User user = userRepository.saveAndFlush(User.builder()
+                .name("Test")
+                .email("test@mail.ru")
+                .build());
+
+        assertEquals(0, flyway.migrate().migrationsExecuted);
+        assertTrue(userRepository.existsById(user.getId()));
+    }
+}
@@ -0,0 +1,137 @@
+package ru.practicum.shareit;
+
+import org.hibernate.LazyInitializationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionAttribute;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.ItemRequestService;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserService;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Services own the transactions: the session is closed before the response is
+ * serialized, so a lazy association touched outside a service fails instead of
+ * holding the connection for the whole request.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:transaction-boundary"
+})
+@AutoConfigureMockMvc
+class TransactionBoundaryTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Test
+    void openSessionInViewShouldBeDisabled() {
+        assertEquals(0, context.getBeanNamesForType(OpenEntityManagerInViewInterceptor.class).length);
+    }
+
+    @Test
+    void lazyAssociationShouldNotLoadOutsideTransaction() {
+        User owner = userRepository.save(User.builder().name("Owner").email("lazy-owner@mail.ru").build());
+        Item item = itemRepository.save(Item.builder()
+                .name("Drill")
+                .description("Cordless drill")
+                .available(true)
+                .owner(owner)
+                .build());
+
+        Item loaded = itemRepository.findById(item.getId()).orElseThrow();
+
+        assertThrows(LazyInitializationException.class, () -> loaded.getOwner().getName());
+    }
+
+    @Test
+    void singleEntityEndpointsShouldNotTouchLazyAssociationsAfterService() throws Exception {
+        User owner = userRepository.save(User.builder().name("Owner").email("single-owner@mail.ru").build());
+        User booker = userRepository.save(User.builder().name("Booker").email("single-booker@mail.ru").build());
+        ItemRequest request = itemRequestRepository.save(ItemRequest.builder()
+                .description("Need a drill")
+                .author(booker)
+                .createdAt(LocalDateTime.now())
+                .build());
+        Item item = itemRepository.save(Item.builder()
+                .name("Drill")
+                .description("Cordless drill")
+                .available(true)
+                .owner(owner)
+                .request(request)
+                .build());
+        Booking booking = bookingRepository.save(Booking.builder()
+                .start(LocalDateTime.now().minusDays(2))
+                .end(LocalDateTime.now().minusDays(1))
+                .item(item)
+                .booker(booker)
+                .status(Status.APPROVED)
+                .build());
+
+        mvc.perform(get("/items/{id}", item.getId()).header("X-Sharer-User-Id", owner.getId()))
+                .andExpect(status().isOk());
+        mvc.perform(get("/bookings/{id}", booking.getId()).header("X-Sharer-User-Id", booker.getId()))
+                .andExpect(status().isOk());
+        mvc.perform(get("/requests/{id}", request.getId()).header("X-Sharer-User-Id", booker.getId()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void everyServiceMethodShouldHaveTransactionAndReadsShouldBeReadOnly() {
+        AnnotationTransactionAttributeSource source = new AnnotationTransactionAttributeSource();
+        for (Class<?> service : List.of(UserService.class, ItemService.class, ItemRequestService.class,
+                BookingService.class)) {
+            for (Method method : service.getDeclaredMethods()) {
+                if (!Modifier.isPublic(method.getModifiers())) {
+                    continue;
+                }
+                TransactionAttribute attribute = source.getTransactionAttribute(method, service);
+                assertNotNull(attribute, method.toString());
+                if (method.getName().startsWith("get") || method.getName().startsWith("find")) {
+                    assertTrue(attribute.isReadOnly(), method.toString());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:concurrency-database",
+        "shareit.booking.admission=database"
+})
+class BookingConcurrencyDatabaseModeTest extends BookingConcurrencyTest {
+}
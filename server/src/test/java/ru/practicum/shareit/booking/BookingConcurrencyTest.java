@@ -0,0 +1,126 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.request.BookingCreateRequest;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:concurrency-local",
+        "shareit.booking.admission=local"
+})
+class BookingConcurrencyTest {
+
+    private static final int ITEMS = 4;
+
+    private static final int REQUESTS = 2000;
+
+    private static final int THREADS = 32;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    private final List<Integer> itemIds = new ArrayList<>();
+
+    private Integer bookerId;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User owner = userRepository.save(User.builder().name("owner").email("owner" + suffix + "@mail.ru").build());
+        bookerId = userRepository.save(User.builder().name("booker").email("booker" + suffix + "@mail.ru").build()).getId();
+        itemIds.clear();
+        for (int i = 0; i < ITEMS; i++) {
+            itemIds.add(itemRepository.save(Item.builder()
+                    .name("item" + i)
+                    .description("item" + i)
+                    .available(true)
+                    .owner(owner)
+                    .build()).getId());
+        }
+    }
+
+    @Test
+    void concurrentOverlappingBookingsShouldNeverDoubleBook() throws Exception {
+        LocalDateTime base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        AtomicInteger accepted = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < REQUESTS; i++) {
+            Integer itemId = itemIds.get(i % ITEMS);
+            futures.add(executor.submit(() -> {
+                startSignal.await();
+                int offset = ThreadLocalRandom.current().nextInt(48);
+                BookingCreateRequest dto = BookingCreateRequest.builder()
+                        .itemId(itemId)
+                        .start(base.plusHours(offset))
+                        .end(base.plusHours(offset + 1 + ThreadLocalRandom.current().nextInt(6)))
+                        .build();
+                try {
+                    bookingService.bookItem(bookerId, dto);
+                    accepted.incrementAndGet();
+                } catch (IllegalArgumentException e) {
+                    assertEquals("Already booked for this time", e.getMessage());
+                }
+                return null;
+            }));
+        }
+        startSignal.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        List<Booking> saved = bookingRepository.findAll().stream()
+                .filter(booking -> itemIds.contains(booking.getItem().getId()))
+                .filter(booking -> booking.getStatus() == Status.WAITING)
+                .collect(Collectors.toList());
+
+        assertEquals(accepted.get(), saved.size());
+        assertTrue(saved.size() > 0);
+        for (Booking first : saved) {
+            for (Booking second : saved) {
+                if (first.getId().equals(second.getId())
+                        || !first.getItem().getId().equals(second.getItem().getId())) {
+                    continue;
+                }
+                assertTrue(!first.getStart().isBefore(second.getEnd()) || !first.getEnd().isAfter(second.getStart()),
+                        "Bookings " + first.getId() + " and " + second.getId() + " overlap");
+            }
+        }
+    }
+}
@@ -11,6 +11,7 @@ import ru.practicum.shareit.booking.dto.request.BookingCreateRequest;
 import ru.practicum.shareit.booking.dto.response.BookingResponse;
 import ru.practicum.shareit.booking.enums.Status;
 import ru.practicum.shareit.item.dto.ItemNameDto;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.user.dto.response.UserResponse;
 
 import java.nio.charset.StandardCharsets;
@@ -22,6 +23,7 @@ import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -307,4 +309,18 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$[0].item.id", is(bookingResponse.getItem().getId())))
                 .andExpect(jsonPath("$[0].booker.id", is(bookingResponse.getBooker().getId())));
     }
+
+    @Test
+    void getUserBookingsWithCursorShouldReturnNextCursorHeader() throws Exception {
+        when(bookingService.getUserBookingsAfter(anyInt(), any(), any(), anyInt()))
+                .thenReturn(new CursorPage<>(List.of(bookingResponse), "next"));
+
+        mvc.perform(get("/bookings?after=&size=1")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .header("X-Sharer-User-Id", 1)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(CursorPage.NEXT_CURSOR_HEADER, "next"))
+                .andExpect(jsonPath("$[0].id", is(bookingResponse.getId()), Integer.class));
+    }
 }
@@ -12,10 +12,13 @@ import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest(properties = {
         "spring.datasource.url=jdbc:h2:mem:testdb",
@@ -129,4 +132,71 @@ public class BookingRepositoryTest {
         assertEquals(1, count);
     }
 
+    @Test
+    void findLastAndNextApprovedByItemIdsShouldReturnOneBookingPerItem() {
+        LocalDateTime now = LocalDateTime.now();
+
+        Booking olderBooking = Booking.builder()
+                .start(now.minusDays(2))
+                .end(now.minusDays(1))
+                .booker(testUser)
+                .item(testItem)
+                .status(Status.APPROVED)
+                .build();
+
+        Booking nextBooking = Booking.builder()
+                .start(now.plusHours(1))
+                .end(now.plusHours(2))
+                .booker(testUser)
+                .item(testItem)
+                .status(Status.APPROVED)
+                .build();
+
+        Booking laterBooking = Booking.builder()
+                .start(now.plusDays(1))
+                .end(now.plusDays(2))
+                .booker(testUser)
+                .item(testItem)
+                .status(Status.APPROVED)
+                .build();
+
+        Booking rejectedBooking = Booking.builder()
+                .start(now.plusMinutes(10))
+                .end(now.plusMinutes(20))
+                .booker(testUser)
+                .item(testItem)
+                .status(Status.REJECTED)
+                .build();
+
+        bookingRepository.saveAll(List.of(olderBooking, nextBooking, laterBooking, rejectedBooking));
+
+        List<Booking> last = bookingRepository.findLastApprovedByItemIds(List.of(testItem.getId()), now);
+        List<Booking> next = bookingRepository.findNextApprovedByItemIds(List.of(testItem.getId()), now);
+
+        assertEquals(1, last.size());
+        assertEquals(testBooking.getId(), last.get(0).getId());
+        assertEquals(1, next.size());
+        assertEquals(nextBooking.getId(), next.get(0).getId());
+    }
+
+    @Test
+    void existsOverlappingShouldDetectContainedAndContainingRanges() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime end = start.plusDays(2);
+
+        bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(end)
+                .booker(testUser)
+                .item(testItem)
+                .status(Status.WAITING)
+                .build());
+
+        assertTrue(bookingRepository.existsOverlapping(testItem.getId(), start, end));
+        assertTrue(bookingRepository.existsOverlapping(testItem.getId(), start.plusHours(1), end.minusHours(1)));
+        assertTrue(bookingRepository.existsOverlapping(testItem.getId(), start.minusHours(1), end.plusHours(1)));
+        assertFalse(bookingRepository.existsOverlapping(testItem.getId(), end, end.plusDays(1)));
+        assertFalse(bookingRepository.existsOverlapping(testItem.getId(), start.minusDays(1), start));
+    }
+
 }
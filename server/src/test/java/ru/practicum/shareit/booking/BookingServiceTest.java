@@ -8,8 +8,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.support.TransactionOperations;
+import ru.practicum.shareit.booking.admission.StripedLockBookingAdmission;
 import ru.practicum.shareit.booking.dto.request.BookingCreateRequest;
 import ru.practicum.shareit.booking.dto.response.BookingResponse;
 import ru.practicum.shareit.booking.enums.State;
@@ -18,9 +20,13 @@ import ru.practicum.shareit.exception.model.NotAuthorizedException;
 import ru.practicum.shareit.exception.model.NotFoundException;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceValidator;
 import ru.practicum.shareit.user.UserRepository;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -62,7 +68,8 @@ public class BookingServiceTest {
 
     @BeforeEach
     void setUp() {
-        bookingService = new BookingService(bookingRepository, userRepository, itemRepository);
+        bookingService = new BookingService(bookingRepository, userRepository, new UserExistenceValidator(userRepository, Duration.ofMinutes(1), 100), itemRepository,
+                new StripedLockBookingAdmission(1, TransactionOperations.withoutTransaction()));
         bookingDto = BookingCreateRequest.builder()
                 .start(LocalDateTime.now().minusHours(1))
                 .end(LocalDateTime.now().plusHours(1))
@@ -152,12 +159,8 @@ public class BookingServiceTest {
                 .thenReturn(Optional.of(user));
 
         Mockito
-                .when(bookingRepository.findAll(Mockito.any(BooleanExpression.class)))
-                .thenReturn(List.of(Booking.builder()
-                        .id(1)
-                        .start(LocalDateTime.now().minusDays(1))
-                        .end(LocalDateTime.now().minusHours(12))
-                        .build()));
+                .when(bookingRepository.existsOverlapping(Mockito.anyInt(), Mockito.any(), Mockito.any()))
+                .thenReturn(false);
 
         Mockito
                 .when(bookingRepository.save(Mockito.any()))
@@ -183,12 +186,8 @@ public class BookingServiceTest {
                 .thenReturn(Optional.of(User.builder().build()));
 
         Mockito
-                .when(bookingRepository.findAll(Mockito.any(BooleanExpression.class)))
-                .thenReturn(List.of(Booking.builder()
-                        .id(1)
-                        .start(LocalDateTime.now().minusDays(1))
-                        .end(LocalDateTime.now().plusDays(1))
-                        .build()));
+                .when(bookingRepository.existsOverlapping(Mockito.any(), Mockito.any(), Mockito.any()))
+                .thenReturn(true);
 
         final IllegalArgumentException exception = Assertions.assertThrows(
                 IllegalArgumentException.class,
@@ -200,8 +199,8 @@ public class BookingServiceTest {
     @Test
     void approveBookingStatusUserNotFoundShouldThrowException() {
         Mockito
-                .when(userRepository.findById(Mockito.anyInt()))
-                .thenReturn(Optional.empty());
+                .when(userRepository.existsById(Mockito.anyInt()))
+                .thenReturn(false);
 
         final NotFoundException exception = Assertions.assertThrows(
                 NotFoundException.class,
@@ -213,8 +212,8 @@ public class BookingServiceTest {
     @Test
     void approveBookingItemNotFoundShouldThrowException() {
         Mockito
-                .when(userRepository.findById(Mockito.anyInt()))
-                .thenReturn(Optional.of(User.builder().build()));
+                .when(userRepository.existsById(Mockito.anyInt()))
+                .thenReturn(true);
 
         Mockito
                 .when(bookingRepository.findByIdWithBookerAndItem(Mockito.anyInt()))
@@ -230,8 +229,8 @@ public class BookingServiceTest {
     @Test
     void approveBookingByNotOwnerShouldThrowException() {
         Mockito
-                .when(userRepository.findById(Mockito.anyInt()))
-                .thenReturn(Optional.of(User.builder().build()));
+                .when(userRepository.existsById(Mockito.anyInt()))
+                .thenReturn(true);
 
         Mockito
                 .when(bookingRepository.findByIdWithBookerAndItem(Mockito.anyInt()))
@@ -253,8 +252,8 @@ public class BookingServiceTest {
     @Test
     void approveBookingAlreadyApprovedShouldThrowException() {
         Mockito
-                .when(userRepository.findById(Mockito.anyInt()))
-                .thenReturn(Optional.of(User.builder().build()));
+                .when(userRepository.existsById(Mockito.anyInt()))
+                .thenReturn(true);
 
         Mockito
                 .when(bookingRepository.findByIdWithBookerAndItem(Mockito.anyInt()))
@@ -277,8 +276,8 @@ public class BookingServiceTest {
     @Test
     void approveBookingShouldReturnBookingResponse() {
         Mockito
-                .when(userRepository.findById(Mockito.anyInt()))
-                .thenReturn(Optional.of(user));
+                .when(userRepository.existsById(Mockito.anyInt()))
+                .thenReturn(true);
 
         Mockito
                 .when(bookingRepository.findByIdWithBookerAndItem(Mockito.anyInt()))
@@ -292,8 +291,8 @@ public class BookingServiceTest {
     @Test
     void getBookingUserNotFoundShouldThrowException() {
         Mockito
-                .when(userRepository.findById(Mockito.anyInt()))
-                .thenReturn(Optional.empty());
+                .when(userRepository.existsById(Mockito.anyInt()))
+                .thenReturn(false);
 
         final NotFoundException exception = Assertions.assertThrows(
                 NotFoundException.class,
@@ -305,8 +304,8 @@ public class BookingServiceTest {
     @Test
     void getBookingItemNotFoundShouldThrowException() {
         Mockito
-                .when(userRepository.findById(Mockito.anyInt()))
-                .thenReturn(Optional.of(User.builder().build()));
+                .when(userRepository.existsById(Mockito.anyInt()))
+                .thenReturn(true);
 
         Mockito
                 .when(bookingRepository.findByIdWithBookerAndItem(Mockito.anyInt()))
@@ -322,8 +321,8 @@ public class BookingServiceTest {
     @Test
     void getBookingByNotOwnerShouldThrowException() {
         Mockito
-                .when(userRepository.findById(Mockito.anyInt()))
-                .thenReturn(Optional.of(User.builder().build()));
+                .when(userRepository.existsById(Mockito.anyInt()))
+                .thenReturn(true);
 
         Mockito
                 .when(bookingRepository.findByIdWithBookerAndItem(Mockito.anyInt()))
@@ -349,8 +348,8 @@ public class BookingServiceTest {
     @Test
     void getUserBookingsUserNotFoundShouldThrowException() {
         Mockito
-                .when(userRepository.findById(Mockito.anyInt()))
-                .thenReturn(Optional.empty());
+                .when(userRepository.existsById(Mockito.anyInt()))
+                .thenReturn(false);
 
         final NotFoundException exception = Assertions.assertThrows(
                 NotFoundException.class,
@@ -362,12 +361,12 @@ public class BookingServiceTest {
     @Test
     void getUserBookingsReturnBookingResponse() {
         Mockito
-                .when(userRepository.findById(Mockito.anyInt()))
-                .thenReturn(Optional.of(user));
+                .when(userRepository.existsById(Mockito.anyInt()))
+                .thenReturn(true);
 
         Mockito
-                .when(bookingRepository.findAll(Mockito.any(BooleanExpression.class), Mockito.any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+                .when(bookingRepository.findSlice(Mockito.any(BooleanExpression.class), Mockito.any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(booking)));
 
         List<BookingResponse> responses = bookingService.getUserBookings(1, State.ALL, 1, 1);
 
@@ -378,8 +377,8 @@ public class BookingServiceTest {
     @Test
     void getUserItemsBookingsUserNotFoundShouldThrowException() {
         Mockito
-                .when(userRepository.findById(Mockito.anyInt()))
-                .thenReturn(Optional.empty());
+                .when(userRepository.existsById(Mockito.anyInt()))
+                .thenReturn(false);
 
         final NotFoundException exception = Assertions.assertThrows(
                 NotFoundException.class,
@@ -391,16 +390,57 @@ public class BookingServiceTest {
     @Test
     void getUserItemsBookingsReturnBookingResponse() {
         Mockito
-                .when(userRepository.findById(Mockito.anyInt()))
-                .thenReturn(Optional.of(user));
+                .when(userRepository.existsById(Mockito.anyInt()))
+                .thenReturn(true);
 
         Mockito
-                .when(bookingRepository.findAll(Mockito.any(BooleanExpression.class), Mockito.any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+                .when(bookingRepository.findSlice(Mockito.any(BooleanExpression.class), Mockito.any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(booking)));
 
         List<BookingResponse> responses = bookingService.getUserItemsBookings(1, State.WAITING, 1, 1);
 
         Assertions.assertEquals(1, responses.size());
         Assertions.assertEquals(booking.getId(), responses.get(0).getId());
     }
+
+    @Test
+    void getUserBookingsAfterShouldReturnPageWithNextCursor() {
+        Booking older = Booking.builder()
+                .id(2)
+                .start(booking.getStart().minusDays(1))
+                .end(booking.getEnd().minusDays(1))
+                .item(item)
+                .booker(user)
+                .status(Status.APPROVED)
+                .build();
+
+        Mockito
+                .when(userRepository.existsById(Mockito.anyInt()))
+                .thenReturn(true);
+
+        Mockito
+                .when(bookingRepository.findLimited(Mockito.any(), Mockito.eq(2), Mockito.any(), Mockito.any()))
+                .thenReturn(List.of(booking, older));
+
+        CursorPage<BookingResponse> page = bookingService.getUserBookingsAfter(1, State.ALL, "", 1);
+
+        Assertions.assertEquals(1, page.getContent().size());
+        Assertions.assertEquals(booking.getId(), page.getContent().get(0).getId());
+        Cursor next = Cursor.decode(page.getNext());
+        Assertions.assertEquals(booking.getStart(), next.getTime());
+        Assertions.assertEquals(booking.getId(), next.getId());
+    }
+
+    @Test
+    void getUserItemsBookingsAfterWithInvalidCursorShouldThrowException() {
+        Mockito
+                .when(userRepository.existsById(Mockito.anyInt()))
+                .thenReturn(true);
+
+        final IllegalArgumentException exception = Assertions.assertThrows(
+                IllegalArgumentException.class,
+                () -> bookingService.getUserItemsBookingsAfter(1, State.ALL, "not a cursor", 1));
+
+        Assertions.assertEquals("Invalid cursor", exception.getMessage());
+    }
 }
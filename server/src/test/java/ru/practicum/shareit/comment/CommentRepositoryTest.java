@@ -0,0 +1,85 @@
+package ru.practicum.shareit.comment;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:testdb",
+})
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class CommentRepositoryTest {
+
+    @Autowired
+    private final UserRepository userRepository;
+
+    @Autowired
+    private final ItemRepository itemRepository;
+
+    @Autowired
+    private final CommentRepository commentRepository;
+
+    private User testUser;
+
+    private Item testItem;
+
+    private Item testItem2;
+
+    @BeforeEach
+    void setUp() {
+        testUser = userRepository.save(User.builder()
+                .name("test1")
+                .email("test1@mail.ru")
+                .build());
+
+        testItem = itemRepository.save(Item.builder()
+                .name("testItem")
+                .description("testItemDescr")
+                .available(true)
+                .owner(testUser)
+                .build());
+
+        testItem2 = itemRepository.save(Item.builder()
+                .name("testItem2")
+                .description("testItemDescr2")
+                .available(true)
+                .owner(testUser)
+                .build());
+    }
+
+    @Test
+    void findAllByItemIdsWithAuthorShouldReturnCommentsOfGivenItemsOnly() {
+        Comment first = commentRepository.save(Comment.builder()
+                .text("first")
+                .item(testItem)
+                .author(testUser)
+                .build());
+        Comment second = commentRepository.save(Comment.builder()
+                .text("second")
+                .item(testItem)
+                .author(testUser)
+                .build());
+        commentRepository.save(Comment.builder()
+                .text("other")
+                .item(testItem2)
+                .author(testUser)
+                .build());
+
+        List<Comment> comments = commentRepository.findAllByItemIdsWithAuthor(List.of(testItem.getId()));
+
+        assertEquals(2, comments.size());
+        assertEquals(first.getId(), comments.get(0).getId());
+        assertEquals(second.getId(), comments.get(1).getId());
+        assertEquals(testUser.getName(), comments.get(0).getAuthor().getName());
+    }
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.exception.model.NotFoundException;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.request.UserCreateRequest;
+import ru.practicum.shareit.user.dto.request.UserUpdateRequest;
+import ru.practicum.shareit.user.dto.response.UserResponse;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:entity-cache",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class EntityCacheConfigTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void getUserShouldBeServedFromCache() {
+        UserResponse user = userService.saveUser(new UserCreateRequest("cached", "cached@mail.ru"));
+        userService.getUser(user.getId());
+
+        statistics.clear();
+        userService.getUser(user.getId());
+        userService.getUser(user.getId());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(2, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    void updateAndDeleteShouldInvalidateCachedUser() {
+        UserResponse user = userService.saveUser(new UserCreateRequest("before", "before@mail.ru"));
+        userService.getUser(user.getId());
+
+        userService.updateUser(user.getId(), UserUpdateRequest.builder().name("after").build());
+
+        assertEquals("after", userService.getUser(user.getId()).getName());
+
+        userService.deleteUser(user.getId());
+
+        assertThrows(NotFoundException.class, () -> userService.getUser(user.getId()));
+    }
+
+    @Test
+    void cacheRegionsShouldExposeHitAndMissMetrics() {
+        UserResponse user = userService.saveUser(new UserCreateRequest("metrics", "metrics@mail.ru"));
+        userService.getUser(user.getId());
+
+        assertNotNull(meterRegistry.find("cache.gets").tag("cache", EntityCacheConfig.USERS).tag("result", "miss")
+                .functionCounter());
+        assertTrue(meterRegistry.find("cache.gets").tag("cache", EntityCacheConfig.USERS).tag("result", "hit")
+                .functionCounter().count() > 0);
+    }
+}
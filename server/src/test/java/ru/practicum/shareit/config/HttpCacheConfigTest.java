@@ -0,0 +1,70 @@
+package ru.practicum.shareit.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:http-cache"
+})
+@AutoConfigureMockMvc
+class HttpCacheConfigTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Test
+    void searchShouldAnswerNotModifiedForMatchingEtag() throws Exception {
+        User owner = userRepository.save(User.builder().name("Owner").email("etag@mail.ru").build());
+        itemRepository.save(Item.builder()
+                .name("Etag drill")
+                .description("Cordless")
+                .available(true)
+                .owner(owner)
+                .build());
+
+        String etag = mvc.perform(get("/items/search").param("text", "etag"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        mvc.perform(get("/items/search").param("text", "etag").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void changedResultShouldGetNewEtag() throws Exception {
+        User owner = userRepository.save(User.builder().name("Owner").email("etag-change@mail.ru").build());
+        String etag = mvc.perform(get("/items/search").param("text", "rotary"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        itemRepository.save(Item.builder()
+                .name("Rotary hammer")
+                .description("Heavy")
+                .available(true)
+                .owner(owner)
+                .build());
+
+        mvc.perform(get("/items/search").param("text", "rotary").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,108 @@
+package ru.practicum.shareit.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.request.UserCreateRequest;
+import ru.practicum.shareit.user.dto.response.UserResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Two in-memory databases stand in for the primary and a replica that never catches up,
+ * so every row tells which of them served the query.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary",
+        "shareit.datasource.replicas[0].url=" + ReplicaRoutingTest.REPLICA_URL,
+        "shareit.datasource.replicas[0].username=test",
+        "shareit.datasource.replicas[0].password=test",
+        "shareit.datasource.read-your-writes=1m"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReplicaRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private HikariDataSource primaryDataSource;
+
+    private JdbcTemplate primary;
+
+    private JdbcTemplate replica;
+
+    @BeforeAll
+    void setUp() {
+        DriverManagerDataSource replicaDataSource = new DriverManagerDataSource(REPLICA_URL, "test", "test");
+        Flyway.configure()
+                .dataSource(replicaDataSource)
+                .locations("classpath:db/migration/common", "classpath:db/migration/h2")
+                .load()
+                .migrate();
+        replica = new JdbcTemplate(replicaDataSource);
+        primary = new JdbcTemplate(primaryDataSource);
+    }
+
+    @Test
+    void readOnlyTransactionShouldReadFromReplica() {
+        replica.update("INSERT INTO users (name, email) VALUES ('Replica', 'replica-only@mail.ru')");
+
+        assertTrue(userService.getAll().stream()
+                .map(UserResponse::getEmail)
+                .anyMatch("replica-only@mail.ru"::equals));
+        assertEquals(0, countUsers(primary, "replica-only@mail.ru"));
+    }
+
+    @Test
+    void writeTransactionShouldGoToPrimary() {
+        userService.saveUser(new UserCreateRequest("Primary", "primary-only@mail.ru"));
+
+        assertEquals(1, countUsers(primary, "primary-only@mail.ru"));
+        assertEquals(0, countUsers(replica, "primary-only@mail.ru"));
+    }
+
+    @Test
+    void recentWriterShouldReadFromPrimary() throws Exception {
+        UserResponse owner = userService.saveUser(new UserCreateRequest("Owner", "writer@mail.ru"));
+        UserResponse other = userService.saveUser(new UserCreateRequest("Other", "reader@mail.ru"));
+
+        mvc.perform(post("/items")
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Lagging drill\",\"description\":\"Cordless\",\"available\":true}"))
+                .andExpect(status().isCreated());
+
+        mvc.perform(get("/items/search").param("text", "lagging").header("X-Sharer-User-Id", owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+        mvc.perform(get("/items/search").param("text", "lagging").header("X-Sharer-User-Id", other.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    private int countUsers(JdbcTemplate jdbcTemplate, String email) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE email = ?", Integer.class, email);
+    }
+}
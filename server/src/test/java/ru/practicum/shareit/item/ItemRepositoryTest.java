@@ -5,8 +5,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
@@ -70,7 +70,7 @@ public class ItemRepositoryTest {
         itemRepository.save(item1notAvailable);
         itemRepository.save(item2diffName);
 
-        Page<Item> pageItem = itemRepository.findAllByDescriptionOrNameContainsIgnoreCase("test1", PageRequest.of(0, 20));
+        Slice<Item> pageItem = itemRepository.findAllByDescriptionOrNameContainsIgnoreCase("test1", PageRequest.of(0, 20));
 
         List<Item> items = pageItem.getContent();
 
@@ -83,5 +83,34 @@ public class ItemRepositoryTest {
         assertEquals(item.getDescription(), testItem.getDescription());
     }
 
+    @Test
+    void findAllByDescriptionOrNameContainsIgnoreCaseShouldReturnNameMatchesFirst() {
+        Item descriptionMatch = Item.builder()
+                .name("other")
+                .description("works like TEST1")
+                .available(true)
+                .request(null)
+                .owner(testUser)
+                .build();
+
+        Item nameMatch = Item.builder()
+                .name("Test1 second")
+                .description("second")
+                .available(true)
+                .request(null)
+                .owner(testUser)
+                .build();
+
+        itemRepository.save(descriptionMatch);
+        itemRepository.save(nameMatch);
+
+        List<Item> items = itemRepository.findAllByDescriptionOrNameContainsIgnoreCase("test1", PageRequest.of(0, 20))
+                .getContent();
+
+        assertEquals(3, items.size());
+        assertEquals(testItem.getId(), items.get(0).getId());
+        assertEquals(nameMatch.getId(), items.get(1).getId());
+        assertEquals(descriptionMatch.getId(), items.get(2).getId());
+    }
 
 }
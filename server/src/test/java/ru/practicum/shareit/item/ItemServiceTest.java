@@ -7,10 +7,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.comment.Comment;
 import ru.practicum.shareit.comment.CommentRepository;
 import ru.practicum.shareit.comment.dto.request.CommentRequest;
 import ru.practicum.shareit.comment.dto.response.CommentResponse;
@@ -20,11 +21,14 @@ import ru.practicum.shareit.item.dto.request.ItemCreateRequest;
 import ru.practicum.shareit.item.dto.request.ItemUpdateRequest;
 import ru.practicum.shareit.item.dto.response.ItemGetResponse;
 import ru.practicum.shareit.item.dto.response.ItemResponse;
+import ru.practicum.shareit.item.search.DatabaseItemSearchEngine;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceValidator;
 import ru.practicum.shareit.user.UserRepository;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -66,7 +70,10 @@ class ItemServiceTest {
 
     @BeforeEach
     void setUp() {
-        itemService = new ItemService(itemRepository, userRepository, bookingRepository, commentRepository, itemRequestRepository);
+        itemService = new ItemService(itemRepository, userRepository,
+                new UserExistenceValidator(userRepository, Duration.ofMinutes(1), 100),
+                bookingRepository, commentRepository, itemRequestRepository,
+                new DatabaseItemSearchEngine(itemRepository));
     }
 
     @Test
@@ -91,7 +98,7 @@ class ItemServiceTest {
         itemService.getItem(1, null);
 
         Mockito.verify(bookingRepository, Mockito.never())
-                .findAllByItem_Id(Mockito.anyInt());
+                .findLastApprovedByItemIds(Mockito.anyCollection(), Mockito.any());
     }
 
     @Test
@@ -101,8 +108,8 @@ class ItemServiceTest {
                 .thenReturn(Optional.of(new Item()));
 
         Mockito
-                .when(userRepository.findById(Mockito.anyInt()))
-                .thenReturn(Optional.empty());
+                .when(userRepository.existsById(Mockito.anyInt()))
+                .thenReturn(false);
 
         final NotFoundException exception = Assertions.assertThrows(
                 NotFoundException.class,
@@ -122,72 +129,105 @@ class ItemServiceTest {
                         .build()));
 
         Mockito
-                .when(userRepository.findById(Mockito.anyInt()))
-                .thenReturn(Optional.of(new User()));
+                .when(userRepository.existsById(Mockito.anyInt()))
+                .thenReturn(true);
 
         itemService.getItem(1, 2);
 
         Mockito.verify(bookingRepository, Mockito.never())
-                .findAllByItem_Id(Mockito.anyInt());
+                .findLastApprovedByItemIds(Mockito.anyCollection(), Mockito.any());
     }
 
     @Test
-    void getItemByOwnerShouldCallBooking1Time() {
+    void getItemByOwnerShouldLoadLastAndNextApprovedBookings() {
         User user = User.builder()
                 .id(1)
                 .name("Test")
                 .build();
+        Item ownItem = Item.builder()
+                .id(1)
+                .owner(user)
+                .build();
 
         Mockito
                 .when(itemRepository.getItemByIdWithOwner(Mockito.anyInt()))
-                .thenReturn(Optional.of(Item.builder()
-                        .id(1)
-                        .owner(user)
-                        .build()));
+                .thenReturn(Optional.of(ownItem));
 
-        List<Booking> bookings = List.of(
-                Booking.builder()
-                        .id(1)
-                        .booker(user)
-                        .start(LocalDateTime.now().minusHours(5))
-                        .end(LocalDateTime.now().minusHours(6))
-                        .build(),
-                Booking.builder()
+        Mockito
+                .when(userRepository.existsById(Mockito.anyInt()))
+                .thenReturn(true);
+
+        Mockito
+                .when(bookingRepository.findLastApprovedByItemIds(Mockito.eq(List.of(1)), Mockito.any()))
+                .thenReturn(List.of(Booking.builder()
                         .id(2)
+                        .item(ownItem)
                         .booker(user)
                         .start(LocalDateTime.now().minusHours(2))
                         .end(LocalDateTime.now().minusHours(1))
-                        .build(),
-                Booking.builder()
+                        .build()));
+
+        Mockito
+                .when(bookingRepository.findNextApprovedByItemIds(Mockito.eq(List.of(1)), Mockito.any()))
+                .thenReturn(List.of(Booking.builder()
                         .id(3)
+                        .item(ownItem)
                         .booker(user)
                         .start(LocalDateTime.now().plusHours(1))
                         .end(LocalDateTime.now().plusHours(2))
-                        .build()
-        );
+                        .build()));
+
+        ItemGetResponse response = itemService.getItem(1, 1);
+
+        Mockito.verify(commentRepository, Mockito.times(1))
+                .findAllByItemIdsWithAuthor(List.of(1));
+        Mockito.verify(bookingRepository, Mockito.never())
+                .findAllByItem_Id(Mockito.anyInt());
+
+        Assertions.assertEquals(3, response.getNextBooking().getId());
+        Assertions.assertEquals(2, response.getLastBooking().getId());
+    }
+
+    @Test
+    void getItemByOwnerWithCurrentBookingShouldNotFail() {
+        User user = User.builder()
+                .id(1)
+                .name("Test")
+                .build();
+        Item ownItem = Item.builder()
+                .id(1)
+                .owner(user)
+                .build();
 
         Mockito
-                .when(bookingRepository.findAllByItem_Id(Mockito.anyInt()))
-                .thenReturn(bookings);
+                .when(itemRepository.getItemByIdWithOwner(Mockito.anyInt()))
+                .thenReturn(Optional.of(ownItem));
 
         Mockito
-                .when(userRepository.findById(Mockito.anyInt()))
-                .thenReturn(Optional.of(new User()));
+                .when(userRepository.existsById(Mockito.anyInt()))
+                .thenReturn(true);
 
-        ItemGetResponse response = itemService.getItem(1, 1);
+        Mockito
+                .when(bookingRepository.findLastApprovedByItemIds(Mockito.anyCollection(), Mockito.any()))
+                .thenReturn(List.of(Booking.builder()
+                        .id(1)
+                        .item(ownItem)
+                        .booker(user)
+                        .start(LocalDateTime.now().minusHours(1))
+                        .end(LocalDateTime.now().plusHours(1))
+                        .build()));
 
-        Mockito.verify(bookingRepository, Mockito.times(1))
-                .findAllByItem_Id(Mockito.anyInt());
+        ItemGetResponse response = itemService.getItem(1, 1);
 
-        Assertions.assertEquals(response.getNextBooking().getId(), 3);
-        Assertions.assertEquals(response.getLastBooking().getId(), 2);
+        Assertions.assertEquals(1, response.getLastBooking().getId());
+        Assertions.assertNull(response.getNextBooking());
     }
 
     @Test
     void getAllUserNotFoundShouldThrowException() {
         Mockito
-                .when(userRepository.findById(Mockito.anyInt()))
-                .thenReturn(Optional.empty());
+                .when(userRepository.existsById(Mockito.anyInt()))
+                .thenReturn(false);
 
         final NotFoundException exception = Assertions.assertThrows(
                 NotFoundException.class,
@@ -199,40 +239,88 @@ class ItemServiceTest {
     @Test
     void getAllShouldCallBookingRepository0Time() {
         Mockito
-                .when(userRepository.findById(Mockito.anyInt()))
-                .thenReturn(Optional.of(new User()));
+                .when(userRepository.existsById(Mockito.anyInt()))
+                .thenReturn(true);
 
         Mockito
                 .when(itemRepository.findAllByOwnerIdOrderById(Mockito.anyInt(), Mockito.any(Pageable.class)))
-                .thenReturn(new PageImpl<>(Collections.emptyList()));
+                .thenReturn(new SliceImpl<>(Collections.emptyList()));
 
         itemService.getAll(1, 1, 1);
 
         Mockito.verify(bookingRepository, Mockito.never())
-                .findAllByItem_Id(Mockito.anyInt());
+                .findLastApprovedByItemIds(Mockito.anyCollection(), Mockito.any());
     }
 
     @Test
-    void getAllShouldCallBookingRepository1TimeForEachItem() {
+    void getAllShouldLoadLastAndNextBookingsOnceForPage() {
+        User booker = User.builder()
+                .id(2)
+                .name("Booker")
+                .build();
+
+        Item item1 = Item.builder().id(1).build();
+        Item item2 = Item.builder().id(2).build();
+
         Mockito
-                .when(userRepository.findById(Mockito.anyInt()))
-                .thenReturn(Optional.of(new User()));
+                .when(userRepository.existsById(Mockito.anyInt()))
+                .thenReturn(true);
 
         Mockito
                 .when(itemRepository.findAllByOwnerIdOrderById(Mockito.anyInt(), Mockito.any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(Item.builder().id(1).build(), Item.builder().id(2).build())));
+                .thenReturn(new SliceImpl<>(List.of(item1, item2)));
 
-        itemService.getAll(1, 1, 1);
+        Mockito
+                .when(bookingRepository.findLastApprovedByItemIds(Mockito.anyCollection(), Mockito.any()))
+                .thenReturn(List.of(Booking.builder()
+                        .id(10)
+                        .item(item1)
+                        .booker(booker)
+                        .build()));
+
+        Mockito
+                .when(bookingRepository.findNextApprovedByItemIds(Mockito.anyCollection(), Mockito.any()))
+                .thenReturn(List.of(Booking.builder()
+                        .id(20)
+                        .item(item2)
+                        .booker(booker)
+                        .build()));
 
-        Mockito.verify(bookingRepository, Mockito.times(2))
+        Mockito
+                .when(commentRepository.findAllByItemIdsWithAuthor(List.of(1, 2)))
+                .thenReturn(List.of(Comment.builder()
+                        .id(30)
+                        .text("comment")
+                        .item(item2)
+                        .author(booker)
+                        .build()));
+
+        List<ItemGetResponse> response = itemService.getAll(1, 0, 20);
+
+        Mockito.verify(commentRepository, Mockito.times(1))
+                .findAllByItemIdsWithAuthor(Mockito.anyCollection());
+        Mockito.verify(bookingRepository, Mockito.times(1))
+                .findLastApprovedByItemIds(Mockito.anyCollection(), Mockito.any());
+        Mockito.verify(bookingRepository, Mockito.times(1))
+                .findNextApprovedByItemIds(Mockito.anyCollection(), Mockito.any());
+        Mockito.verify(bookingRepository, Mockito.never())
                 .findAllByItem_Id(Mockito.anyInt());
+
+        Assertions.assertEquals(2, response.size());
+        Assertions.assertEquals(10, response.get(0).getLastBooking().getId());
+        Assertions.assertNull(response.get(0).getNextBooking());
+        Assertions.assertNull(response.get(1).getLastBooking());
+        Assertions.assertEquals(20, response.get(1).getNextBooking().getId());
+        Assertions.assertTrue(response.get(0).getComments().isEmpty());
+        Assertions.assertEquals(1, response.get(1).getComments().size());
+        Assertions.assertEquals("Booker", response.get(1).getComments().get(0).getAuthorName());
     }
 
     @Test
     void saveItemUserNotFoundShouldThrowException() {
         Mockito
-                .when(userRepository.findById(Mockito.anyInt()))
-                .thenReturn(Optional.empty());
+                .when(userRepository.existsById(Mockito.anyInt()))
+                .thenReturn(false);
 
         final NotFoundException exception = Assertions.assertThrows(
                 NotFoundException.class,
@@ -244,8 +332,8 @@ class ItemServiceTest {
     @Test
     void saveItemWithNullRequestShouldCallItemRequestRepository0TimeAndSaveItem() {
         Mockito
-                .when(userRepository.findById(Mockito.anyInt()))
-                .thenReturn(Optional.of(new User()));
+                .when(userRepository.existsById(Mockito.anyInt()))
+                .thenReturn(true);
 
         Mockito
                 .when(itemRepository.save(Mockito.any(Item.class)))
@@ -267,8 +355,8 @@ class ItemServiceTest {
     @Test
     void saveItemWithWrongRequestShouldThrowException() {
         Mockito
-                .when(userRepository.findById(Mockito.anyInt()))
-                .thenReturn(Optional.of(new User()));
+                .when(userRepository.existsById(Mockito.anyInt()))
+                .thenReturn(true);
 
         Mockito
                 .when(itemRequestRepository.findById(Mockito.anyInt()))
@@ -291,8 +379,8 @@ class ItemServiceTest {
     @Test
     void saveItemWithRequestShouldCallItemRequestRepository1TimeAndSave() {
         Mockito
-                .when(userRepository.findById(Mockito.anyInt()))
-                .thenReturn(Optional.of(new User()));
+                .when(userRepository.existsById(Mockito.anyInt()))
+                .thenReturn(true);
 
         Mockito
                 .when(itemRequestRepository.findById(Mockito.anyInt()))
@@ -349,8 +437,8 @@ class ItemServiceTest {
                 .thenReturn(Optional.of(Item.builder().owner(User.builder().id(1).build()).build()));
 
         Mockito
-                .when(userRepository.findById(Mockito.anyInt()))
-                .thenReturn(Optional.empty());
+                .when(userRepository.existsById(Mockito.anyInt()))
+                .thenReturn(false);
 
         final NotFoundException exception = Assertions.assertThrows(
                 NotFoundException.class,
@@ -370,8 +458,8 @@ class ItemServiceTest {
                 .thenReturn(item);
 
         Mockito
-                .when(userRepository.findById(Mockito.anyInt()))
-                .thenReturn(Optional.of(User.builder().id(1).build()));
+                .when(userRepository.existsById(Mockito.anyInt()))
+                .thenReturn(true);
 
         ItemResponse response = itemService.updateItem(1, new ItemUpdateRequest(), 1);
 
@@ -412,8 +500,8 @@ class ItemServiceTest {
                 .thenReturn(Optional.of(Item.builder().owner(User.builder().id(1).build()).build()));
 
         Mockito
-                .when(userRepository.findById(Mockito.anyInt()))
-                .thenReturn(Optional.of(User.builder().id(1).build()));
+                .when(userRepository.existsById(Mockito.anyInt()))
+                .thenReturn(true);
 
         itemService.deleteItem(1, 1);
 
@@ -431,7 +519,7 @@ class ItemServiceTest {
     void findByTextWitTextShouldReturnArray() {
         Mockito
                 .when(itemRepository.findAllByDescriptionOrNameContainsIgnoreCase(Mockito.anyString(), Mockito.any()))
-                .thenReturn(new PageImpl<>(List.of(item)));
+                .thenReturn(new SliceImpl<>(List.of(item)));
 
         List<ItemResponse> items = itemService.findByText("test", 0, 20);
 
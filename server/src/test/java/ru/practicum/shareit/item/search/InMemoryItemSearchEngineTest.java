@@ -0,0 +1,144 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryItemSearchEngineTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    private InMemoryItemSearchEngine searchEngine;
+
+    private final Item drill = Item.builder()
+            .id(1)
+            .name("Дрель")
+            .description("Простая дрель")
+            .available(true)
+            .build();
+
+    private final Item screwdriver = Item.builder()
+            .id(2)
+            .name("Отвертка")
+            .description("Аккумуляторная отвертка, не дрель")
+            .available(true)
+            .build();
+
+    private final Item hiddenDrill = Item.builder()
+            .id(3)
+            .name("Дрель ударная")
+            .description("Недоступна")
+            .available(false)
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        searchEngine = new InMemoryItemSearchEngine(itemRepository);
+        searchEngine.index(drill);
+        searchEngine.index(screwdriver);
+        searchEngine.index(hiddenDrill);
+    }
+
+    @Test
+    void searchShouldReturnAvailableItemsWithNameMatchesFirst() {
+        mockFindAllById();
+
+        List<Item> items = searchEngine.search("дРЕль", PageRequest.of(0, 20));
+
+        Assertions.assertEquals(List.of(drill, screwdriver), items);
+    }
+
+    @Test
+    void searchShouldApplyPage() {
+        mockFindAllById();
+
+        List<Item> items = searchEngine.search("дрель", PageRequest.of(1, 1));
+
+        Assertions.assertEquals(List.of(screwdriver), items);
+    }
+
+    @Test
+    void searchAfterRemoveShouldNotReturnItem() {
+        searchEngine.remove(drill.getId());
+        searchEngine.index(Item.builder()
+                .id(2)
+                .name("Отвертка")
+                .description("Крестовая")
+                .available(true)
+                .build());
+
+        List<Item> items = searchEngine.search("дрель", PageRequest.of(0, 20));
+
+        Assertions.assertTrue(items.isEmpty());
+        Mockito.verify(itemRepository, Mockito.never()).findAllById(Mockito.any());
+    }
+
+    @Test
+    void indexInTransactionShouldApplyOnlyAfterCommit() {
+        Item hammer = Item.builder()
+                .id(4)
+                .name("Молоток")
+                .description("Слесарный")
+                .available(true)
+                .build();
+        Mockito
+                .when(itemRepository.findAllById(Mockito.any()))
+                .thenReturn(List.of(hammer));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            searchEngine.index(hammer);
+            searchEngine.remove(drill.getId());
+
+            Assertions.assertTrue(searchEngine.search("молот", PageRequest.of(0, 20)).isEmpty());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        Assertions.assertEquals(List.of(hammer), searchEngine.search("молот", PageRequest.of(0, 20)));
+    }
+
+    @Test
+    void indexInRolledBackTransactionShouldKeepIndex() {
+        mockFindAllById();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            searchEngine.remove(drill.getId());
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        Assertions.assertEquals(List.of(drill, screwdriver), searchEngine.search("дрель", PageRequest.of(0, 20)));
+    }
+
+    private void mockFindAllById() {
+        Mockito
+                .when(itemRepository.findAllById(Mockito.any()))
+                .thenAnswer(invocation -> {
+                    Iterable<Integer> ids = invocation.getArgument(0);
+                    return StreamSupport.stream(ids.spliterator(), false)
+                            .map(id -> List.of(drill, screwdriver, hiddenDrill).get(id - 1))
+                            .collect(Collectors.toList());
+                });
+    }
+}
@@ -5,7 +5,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
-import org.springframework.data.domain.Page;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.ItemRepository;
@@ -30,6 +30,9 @@ public class ItemRequestRepositoryTest {
 
     @Autowired
     private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private final TestEntityManager entityManager;
     private User testUser;
 
     private Item testItem;
@@ -62,14 +65,14 @@ public class ItemRequestRepositoryTest {
     }
 
     @Test
-    void getAllByUserIdWithItemsShouldReturnRequest2Request1() {
+    void getAllByUserIdShouldReturnRequest2Request1() {
         ItemRequest testItemRequest2 = ItemRequest.builder()
                 .description("test1")
                 .author(testUser)
                 .build();
         itemRequestRepository.save(testItemRequest2);
 
-        List<ItemRequest> requests = itemRequestRepository.getAllByUserIdWithItems(testUser.getId());
+        List<ItemRequest> requests = itemRequestRepository.getAllByUserId(testUser.getId());
 
         assertEquals(2, requests.size());
 
@@ -78,7 +81,7 @@ public class ItemRequestRepositoryTest {
     }
 
     @Test
-    void getAllWithItemsShouldReturnEmptyList() {
+    void getAllOthersShouldReturnEmptyList() {
         ItemRequest testItemRequest2 = ItemRequest.builder()
                 .description("test1")
                 .author(testUser)
@@ -86,11 +89,62 @@ public class ItemRequestRepositoryTest {
 
         itemRequestRepository.save(testItemRequest2);
 
-        Page<ItemRequest> requestsPage = itemRequestRepository.getAllWithItems(testUser.getId(), PageRequest.of(0, 20));
-
-        List<ItemRequest> requests = requestsPage.getContent();
+        List<ItemRequest> requests = itemRequestRepository.getAllOthers(testUser.getId(), PageRequest.of(0, 20));
 
         assertEquals(0, requests.size());
     }
 
+    @Test
+    void getAllOthersAfterShouldReturnOlderRequests() {
+        User otherUser = userRepository.save(User.builder()
+                .name("Other")
+                .email("other@mail.ru")
+                .build());
+
+        ItemRequest newer = itemRequestRepository.save(ItemRequest.builder()
+                .description("newer")
+                .author(testUser)
+                .build());
+        // cursors are built from rows read back from the database, not from the saved instances
+        entityManager.flush();
+        entityManager.clear();
+
+        List<ItemRequest> firstPage = itemRequestRepository.getAllOthers(otherUser.getId(), PageRequest.of(0, 1));
+
+        assertEquals(1, firstPage.size());
+        assertEquals(newer.getId(), firstPage.get(0).getId());
+
+        List<ItemRequest> secondPage = itemRequestRepository.getAllOthersAfter(otherUser.getId(),
+                firstPage.get(0).getCreatedAt(), firstPage.get(0).getId(), PageRequest.of(0, 1));
+
+        assertEquals(1, secondPage.size());
+        assertEquals(testItemRequest.getId(), secondPage.get(0).getId());
+    }
+
+    @Test
+    void findAllByRequestIdsShouldReturnAnswersOfGivenRequestsOnly() {
+        ItemRequest otherRequest = itemRequestRepository.save(ItemRequest.builder()
+                .description("other")
+                .author(testUser)
+                .build());
+        Item answer = itemRepository.save(Item.builder()
+                .name("answer")
+                .description("answer description")
+                .available(true)
+                .request(testItemRequest)
+                .owner(testUser)
+                .build());
+        itemRepository.save(Item.builder()
+                .name("other answer")
+                .description("other answer description")
+                .available(true)
+                .request(otherRequest)
+                .owner(testUser)
+                .build());
+
+        List<Item> items = itemRepository.findAllByRequestIds(List.of(testItemRequest.getId()));
+
+        assertEquals(1, items.size());
+        assertEquals(answer.getId(), items.get(0).getId());
+    }
 }
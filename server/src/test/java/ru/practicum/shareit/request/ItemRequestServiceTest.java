@@ -7,15 +7,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.exception.model.NotFoundException;
 import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestRequest;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceValidator;
 import ru.practicum.shareit.user.UserRepository;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -29,13 +31,17 @@ class ItemRequestServiceTest {
     @Mock
     private ItemRequestRepository itemRequestRepository;
 
+    @Mock
+    private ItemRepository itemRepository;
+
     private ItemRequestService itemRequestService;
 
     private ItemRequest request;
 
     @BeforeEach
     void setUp() {
-        itemRequestService = new ItemRequestService(itemRequestRepository, userRepository);
+        itemRequestService = new ItemRequestService(itemRequestRepository, userRepository, itemRepository,
+                new UserExistenceValidator(userRepository, Duration.ofMinutes(1), 100));
 
         request = ItemRequest.builder()
                 .id(1)
@@ -60,8 +66,8 @@ class ItemRequestServiceTest {
     @Test
     void addItemRequestNotFoundShouldThrowException() {
         Mockito
-                .when(userRepository.findById(Mockito.anyInt()))
-                .thenReturn(Optional.empty());
+                .when(userRepository.existsById(Mockito.anyInt()))
+                .thenReturn(false);
 
         final NotFoundException exception = Assertions.assertThrows(
                 NotFoundException.class,
@@ -81,8 +87,8 @@ class ItemRequestServiceTest {
                 .thenReturn(request);
 
         Mockito
-                .when(userRepository.findById(Mockito.anyInt()))
-                .thenReturn(Optional.of(User.builder().id(1).name("Test").build()));
+                .when(userRepository.existsById(Mockito.anyInt()))
+                .thenReturn(true);
 
         ItemRequestDto dto = itemRequestService.addItemRequest(requestRequest, 1);
 
@@ -92,8 +98,8 @@ class ItemRequestServiceTest {
     @Test
     void getOwnItemRequestNotFoundShouldThrowException() {
         Mockito
-                .when(userRepository.findById(Mockito.anyInt()))
-                .thenReturn(Optional.empty());
+                .when(userRepository.existsById(Mockito.anyInt()))
+                .thenReturn(false);
 
         final NotFoundException exception = Assertions.assertThrows(
                 NotFoundException.class,
@@ -105,36 +111,48 @@ class ItemRequestServiceTest {
     @Test
     void getOwnItemRequestReturnRequestResponse() {
         Mockito
-                .when(itemRequestRepository.getAllByUserIdWithItems(Mockito.anyInt()))
+                .when(itemRequestRepository.getAllByUserId(Mockito.anyInt()))
                 .thenReturn(List.of(request));
 
         Mockito
-                .when(userRepository.findById(Mockito.anyInt()))
-                .thenReturn(Optional.of(User.builder().id(1).name("Test").build()));
+                .when(itemRepository.findAllByRequestIds(List.of(request.getId())))
+                .thenReturn(List.of(Item.builder()
+                        .id(2)
+                        .name("answer")
+                        .available(true)
+                        .request(request)
+                        .build()));
+
+        Mockito
+                .when(userRepository.existsById(Mockito.anyInt()))
+                .thenReturn(true);
 
         List<ItemRequestDto> dtos = itemRequestService.getOwnItemRequest(1);
 
         Assertions.assertEquals(1, dtos.size());
         Assertions.assertEquals(request.getId(), dtos.get(0).getId());
+        Assertions.assertEquals(1, dtos.get(0).getItems().size());
+        Assertions.assertEquals(2, dtos.get(0).getItems().get(0).getId());
     }
 
     @Test
     void getAllItemRequestReturnRequestResponse() {
         Mockito
-                .when(itemRequestRepository.getAllWithItems(Mockito.anyInt(), Mockito.any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(request)));
+                .when(itemRequestRepository.getAllOthers(Mockito.anyInt(), Mockito.any(Pageable.class)))
+                .thenReturn(List.of(request));
 
         List<ItemRequestDto> dtos = itemRequestService.getAllItemRequest(1, 0, 20);
 
         Assertions.assertEquals(1, dtos.size());
         Assertions.assertEquals(request.getId(), dtos.get(0).getId());
+        Mockito.verify(itemRepository, Mockito.times(1)).findAllByRequestIds(List.of(request.getId()));
     }
 
     @Test
     void getItemRequestUserNotFoundShouldThrowException() {
         Mockito
-                .when(userRepository.findById(Mockito.anyInt()))
-                .thenReturn(Optional.empty());
+                .when(userRepository.existsById(Mockito.anyInt()))
+                .thenReturn(false);
 
         final NotFoundException exception = Assertions.assertThrows(
                 NotFoundException.class,
@@ -146,8 +164,8 @@ class ItemRequestServiceTest {
     @Test
     void getItemRequestRequestNotFoundShouldThrowException() {
         Mockito
-                .when(userRepository.findById(Mockito.anyInt()))
-                .thenReturn(Optional.of(User.builder().id(1).name("Test").build()));
+                .when(userRepository.existsById(Mockito.anyInt()))
+                .thenReturn(true);
 
         Mockito
                 .when(itemRequestRepository.getByIdWithItems(Mockito.any()))
@@ -167,8 +185,8 @@ class ItemRequestServiceTest {
                 .thenReturn(Optional.of(request));
 
         Mockito
-                .when(userRepository.findById(Mockito.anyInt()))
-                .thenReturn(Optional.of(User.builder().id(1).name("Test").build()));
+                .when(userRepository.existsById(Mockito.anyInt()))
+                .thenReturn(true);
 
         ItemRequestDto dto = itemRequestService.getItemRequest(1, 1);
 
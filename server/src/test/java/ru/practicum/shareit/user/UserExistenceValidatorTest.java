@@ -0,0 +1,85 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.exception.model.NotFoundException;
+
+import java.time.Duration;
+
+@ExtendWith(MockitoExtension.class)
+class UserExistenceValidatorTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserExistenceValidator validator;
+
+    @BeforeEach
+    void setUp() {
+        validator = new UserExistenceValidator(userRepository, Duration.ofMinutes(1), 100);
+    }
+
+    @Test
+    void validateKnownUserShouldQueryRepositoryOnce() {
+        Mockito
+                .when(userRepository.existsById(1))
+                .thenReturn(true);
+
+        validator.validate(1);
+        validator.validate(1);
+
+        Mockito.verify(userRepository, Mockito.times(1)).existsById(1);
+        Mockito.verify(userRepository, Mockito.never()).findById(Mockito.anyInt());
+    }
+
+    @Test
+    void validateUnknownUserShouldThrowExceptionEveryTime() {
+        Mockito
+                .when(userRepository.existsById(1))
+                .thenReturn(false);
+
+        Assertions.assertThrows(NotFoundException.class, () -> validator.validate(1));
+        Assertions.assertThrows(NotFoundException.class, () -> validator.validate(1));
+
+        Mockito.verify(userRepository, Mockito.times(2)).existsById(1);
+    }
+
+    @Test
+    void validateForgottenUserShouldQueryRepositoryAgain() {
+        Mockito
+                .when(userRepository.existsById(1))
+                .thenReturn(true, false);
+
+        validator.validate(1);
+        validator.forget(1);
+
+        Assertions.assertThrows(NotFoundException.class, () -> validator.validate(1));
+    }
+
+    @Test
+    void forgetInTransactionShouldApplyAfterCommit() {
+        Mockito
+                .when(userRepository.existsById(1))
+                .thenReturn(true, false);
+
+        validator.validate(1);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            validator.forget(1);
+            // a concurrent check before the commit still sees the user
+            validator.validate(1);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        Assertions.assertThrows(NotFoundException.class, () -> validator.validate(1));
+    }
+}
@@ -12,6 +12,7 @@ import ru.practicum.shareit.user.dto.request.UserCreateRequest;
 import ru.practicum.shareit.user.dto.request.UserUpdateRequest;
 import ru.practicum.shareit.user.dto.response.UserResponse;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,7 +28,7 @@ class UserServiceTest {
 
     @BeforeEach
     void setUp() {
-        userService = new UserService(userRepository);
+        userService = new UserService(userRepository, new UserExistenceValidator(userRepository, Duration.ofMinutes(1), 100));
         user = User.builder()
                 .id(1)
                 .name("Test")
@@ -124,8 +125,8 @@ class UserServiceTest {
     @Test
     void deleteUserNotFoundShouldThrowException() {
         Mockito
-                .when(userRepository.findById(Mockito.anyInt()))
-                .thenReturn(Optional.empty());
+                .when(userRepository.existsById(Mockito.anyInt()))
+                .thenReturn(false);
 
         final NotFoundException exception = Assertions.assertThrows(
                 NotFoundException.class,
@@ -137,8 +138,8 @@ class UserServiceTest {
     @Test
     void deleteUserNoExceptions() {
         Mockito
-                .when(userRepository.findById(Mockito.anyInt()))
-                .thenReturn(Optional.of(user));
+                .when(userRepository.existsById(Mockito.anyInt()))
+                .thenReturn(true);
 
         userService.deleteUser(1);
 